@@ -0,0 +1,258 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The BatchEvaluator class computes heuristic features for many positions at once.
+ * Positions are packed one after another in a byte array, one byte per cell in the order of
+ * {@link Board#getCubeToIndexMap()}, holding {@link #EMPTY}, {@link #BLUE} or {@link #RED}.
+ * The batch is split into chunks that run in parallel on a fork/join pool, and each chunk
+ * reuses its own scratch arrays so evaluating a position does not allocate.
+ */
+public class BatchEvaluator {
+
+    /** Cell values in a packed position. */
+    public static final byte EMPTY = 0;
+    public static final byte BLUE = 1;
+    public static final byte RED = 2;
+
+    /** Feature offsets within the features of one position. */
+    public static final int BLUE_STONES = 0;
+    public static final int RED_STONES = 1;
+    public static final int BLUE_GROUPS = 2;
+    public static final int RED_GROUPS = 3;
+    public static final int BLUE_LARGEST_GROUP = 4;
+    public static final int RED_LARGEST_GROUP = 5;
+    public static final int BLUE_LIBERTIES = 6;    //Empty cells touching a blue stone
+    public static final int RED_LIBERTIES = 7;     //Empty cells touching a red stone
+    public static final int BLUE_CAPTURES = 8;     //Empty cells where blue could capture
+    public static final int RED_CAPTURES = 9;      //Empty cells where red could capture
+    public static final int FEATURE_COUNT = 10;
+
+    private static final int CHUNK_SIZE = 64;  //Positions evaluated by one task
+
+    private final BoardTopology topology;
+    private final int[] neighbors;
+    private final int cellCount;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param topology The board the positions are played on.
+     */
+    public BatchEvaluator(BoardTopology topology) {
+        this(topology, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param topology The board the positions are played on.
+     * @param pool The pool to run chunks on.
+     */
+    public BatchEvaluator(BoardTopology topology, ForkJoinPool pool) {
+        this.topology = topology;
+        this.neighbors = topology.neighborTable();
+        this.cellCount = topology.getCellCount();
+        this.pool = pool;
+    }
+
+    /**
+     * @return The board topology the positions use.
+     */
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Writes the current state of a board into a packed position.
+     *
+     * @param board The board to encode.
+     * @param positions The packed positions array.
+     * @param position The index of the position to write.
+     */
+    public void encode(Board board, byte[] positions, int position) {
+        int[] blue = board.getHex().getBlueHexagons();
+        int[] red = board.getHex().getRedHexagons();
+        int base = position * cellCount;
+        for (int i = 0; i < cellCount; i++) {
+            positions[base + i] = (byte) (blue[i] * BLUE + red[i] * RED);
+        }
+    }
+
+    /**
+     * Evaluates every position in a packed array.
+     *
+     * @param positions The packed positions, cellCount bytes each.
+     * @param count The number of positions to evaluate.
+     * @return The features, {@link #FEATURE_COUNT} ints per position.
+     */
+    public int[] evaluate(byte[] positions, int count) {
+        if (count < 0) throw new IllegalArgumentException("count is negative");
+        //Long sizes, so a large batch cannot overflow into a size that passes the check
+        if (positions.length < (long) count * cellCount) {
+            throw new IllegalArgumentException("positions holds fewer than " + count + " positions");
+        }
+        int[] features = new int[Math.multiplyExact(count, FEATURE_COUNT)];
+        pool.invoke(ForkJoinTask.adapt(() -> evaluateRange(positions, features, 0, count)));
+        return features;
+    }
+
+    /**
+     * Splits a range of positions in half until it is small enough to evaluate directly.
+     * Runs inside the pool, so the halves are forked onto it.
+     */
+    private void evaluateRange(byte[] positions, int[] features, int from, int to) {
+        if (to - from <= CHUNK_SIZE) {
+            Scratch scratch = new Scratch(cellCount);
+            for (int position = from; position < to; position++) {
+                evaluatePosition(positions, position * cellCount, features, position * FEATURE_COUNT, scratch);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        ForkJoinTask.invokeAll(ForkJoinTask.adapt(() -> evaluateRange(positions, features, from, middle)),
+                ForkJoinTask.adapt(() -> evaluateRange(positions, features, middle, to)));
+    }
+
+    /**
+     * Working arrays reused for every position in a chunk.
+     */
+    private static final class Scratch {
+        final int[] label;      //Group label of each cell, -1 if empty
+        final int[] groupSize;  //Size of each group by label
+        final int[] largestOpponent;  //Size of the largest opposing group touching each group
+        final int[] stack;      //Flood fill stack
+        final int[] seen = new int[6];  //Distinct groups around one cell
+
+        Scratch(int cellCount) {
+            label = new int[cellCount];
+            groupSize = new int[cellCount];
+            largestOpponent = new int[cellCount];
+            stack = new int[cellCount];
+        }
+    }
+
+    /**
+     * Evaluates one position. It first counts stones with a simple branch-free loop, then
+     * labels groups with a flood fill, then looks at every cell's neighbours once more.
+     */
+    private void evaluatePosition(byte[] positions, int base, int[] features, int out, Scratch scratch) {
+        int n = cellCount;
+
+        int blueStones = 0;
+        int redStones = 0;
+        for (int i = 0; i < n; i++) {
+            int value = positions[base + i];
+            blueStones += value & BLUE;
+            redStones += (value & RED) >>> 1;
+        }
+
+        //Label groups
+        int[] label = scratch.label;
+        int[] groupSize = scratch.groupSize;
+        int[] stack = scratch.stack;
+        for (int i = 0; i < n; i++) {
+            label[i] = -1;
+        }
+        int groups = 0;
+        int blueGroups = 0, redGroups = 0, blueLargest = 0, redLargest = 0;
+        for (int start = 0; start < n; start++) {
+            byte colour = positions[base + start];
+            if (colour == EMPTY || label[start] >= 0) continue;
+
+            int size = 0;
+            int top = 0;
+            stack[top++] = start;
+            label[start] = groups;
+            while (top > 0) {
+                int cell = stack[--top];
+                size++;
+                for (int k = cell * 6, end = k + 6; k < end; k++) {
+                    int neighbor = neighbors[k];
+                    if (neighbor >= 0 && label[neighbor] < 0 && positions[base + neighbor] == colour) {
+                        label[neighbor] = groups;
+                        stack[top++] = neighbor;
+                    }
+                }
+            }
+            groupSize[groups++] = size;
+            if (colour == BLUE) {
+                blueGroups++;
+                blueLargest = Math.max(blueLargest, size);
+            } else {
+                redGroups++;
+                redLargest = Math.max(redLargest, size);
+            }
+        }
+
+        //Find the largest opposing group next to each group
+        int[] largestOpponent = scratch.largestOpponent;
+        for (int group = 0; group < groups; group++) {
+            largestOpponent[group] = 0;
+        }
+        for (int cell = 0; cell < n; cell++) {
+            byte colour = positions[base + cell];
+            if (colour == EMPTY) continue;
+            int group = label[cell];
+            for (int k = cell * 6, end = k + 6; k < end; k++) {
+                int neighbor = neighbors[k];
+                if (neighbor >= 0 && label[neighbor] >= 0 && positions[base + neighbor] != colour) {
+                    largestOpponent[group] = Math.max(largestOpponent[group], groupSize[label[neighbor]]);
+                }
+            }
+        }
+
+        //Look at each empty cell's neighbouring groups. Like Board, a capture is checked against
+        //every opposing group touching the joined group, not only those touching the new stone.
+        int blueLiberties = 0, redLiberties = 0, blueCaptures = 0, redCaptures = 0;
+        int[] seen = scratch.seen;
+        for (int cell = 0; cell < n; cell++) {
+            if (positions[base + cell] != EMPTY) continue;
+
+            int distinct = 0;
+            int blueJoined = 1, redJoined = 1;        //Size of the group a new stone would make
+            int blueFacing = 0, redFacing = 0;        //Largest opposing group the joined group would touch
+            boolean touchesBlue = false, touchesRed = false;
+            for (int k = cell * 6, end = k + 6; k < end; k++) {
+                int neighbor = neighbors[k];
+                if (neighbor < 0 || label[neighbor] < 0) continue;
+                int group = label[neighbor];
+                boolean repeated = false;
+                for (int j = 0; j < distinct; j++) {
+                    if (seen[j] == group) {
+                        repeated = true;
+                        break;
+                    }
+                }
+                if (repeated) continue;
+                seen[distinct++] = group;
+
+                int size = groupSize[group];
+                if (positions[base + neighbor] == BLUE) {
+                    touchesBlue = true;
+                    blueJoined += size;
+                    blueFacing = Math.max(blueFacing, largestOpponent[group]);
+                    redFacing = Math.max(redFacing, size);
+                } else {
+                    touchesRed = true;
+                    redJoined += size;
+                    redFacing = Math.max(redFacing, largestOpponent[group]);
+                    blueFacing = Math.max(blueFacing, size);
+                }
+            }
+            if (touchesBlue) blueLiberties++;
+            if (touchesRed) redLiberties++;
+            if (blueFacing > 0 && blueFacing < blueJoined) blueCaptures++;
+            if (redFacing > 0 && redFacing < redJoined) redCaptures++;
+        }
+
+        features[out + BLUE_STONES] = blueStones;
+        features[out + RED_STONES] = redStones;
+        features[out + BLUE_GROUPS] = blueGroups;
+        features[out + RED_GROUPS] = redGroups;
+        features[out + BLUE_LARGEST_GROUP] = blueLargest;
+        features[out + RED_LARGEST_GROUP] = redLargest;
+        features[out + BLUE_LIBERTIES] = blueLiberties;
+        features[out + RED_LIBERTIES] = redLiberties;
+        features[out + BLUE_CAPTURES] = blueCaptures;
+        features[out + RED_CAPTURES] = redCaptures;
+    }
+}
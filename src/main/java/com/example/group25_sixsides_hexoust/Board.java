@@ -12,20 +12,78 @@ interface BoardUpdateListener {
  */
 public class Board {
 
-    private Hex hex = new Hex(200);
+    //Boards with at least this many hexes find groups on bitboards rather than one hex at a time
+    static final int BITBOARD_MIN_CELLS = 2000;
+
+    private Hex hex;
     private ArrayList<HexCube> cubeCoordinates;
-    private Map<HexCube, Integer> cubeToIndexMap = new HashMap<>(); //Map for quick lookup of hex indexes
     private BoardUpdateListener updateListener;  //Listener for board updates
+    private int blueStones, redStones;  //Live stone counts per colour
+    private int blueGroups, redGroups;  //Live group counts per colour
+    private HexBitboard bitboard;  //Copy of the stones as bits, kept in step with hex
+    private final int[] lastCaptured;  //Cells taken by the last capture played, reused for every capture
+    private boolean useBitboard;
+    private final Rules rules;
+    private final BoardTopology topology;
 
     /**
      * Constructs a Board instance initializes game.
      * @param cubeCoordinates A list of HexCube objects representing the hexagonal grid.
      */
     public Board(ArrayList<HexCube> cubeCoordinates) {
+        this(cubeCoordinates, Rules.STANDARD);
+    }
+
+    /**
+     * Constructs a Board instance that plays a rules variant.
+     * @param cubeCoordinates A list of HexCube objects representing the hexagonal grid.
+     * @param rules The rules to check moves with.
+     */
+    public Board(ArrayList<HexCube> cubeCoordinates, Rules rules) {
+        this(cubeCoordinates, rules, null);
+    }
+
+    /**
+     * Constructs a Board instance from a topology that is already worked out, such as
+     * a precomputed standard board, so the neighbour table does not have to be rebuilt.
+     * @param topology The cells of the board and their neighbours.
+     * @param rules The rules to check moves with.
+     */
+    public Board(BoardTopology topology, Rules rules) {
+        this(topology.getCells(), rules, topology);
+    }
+
+    private Board(ArrayList<HexCube> cubeCoordinates, Rules rules, BoardTopology topology) {
+        this.rules = rules;
         this.cubeCoordinates = cubeCoordinates;
-        for (int i = 0; i < cubeCoordinates.size(); i++) {
-            cubeToIndexMap.put(cubeCoordinates.get(i), i);  // Mapping HexCube to index
-        }
+        hex = new Hex(cubeCoordinates.size());
+        this.topology = topology != null ? topology : BoardTopology.of(cubeCoordinates);
+        bitboard = new HexBitboard(this.topology);
+        lastCaptured = new int[cubeCoordinates.size()];
+        useBitboard = cubeCoordinates.size() >= BITBOARD_MIN_CELLS;
+    }
+
+    /**
+     * @return The cells of the board and their neighbours.
+     */
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Chooses how groups are found. Both ways give the same groups, this is for testing and tuning.
+     *
+     * @param useBitboard true to flood fill bitboards, false to search hex by hex.
+     */
+    void setUseBitboard(boolean useBitboard) {
+        this.useBitboard = useBitboard;
+    }
+
+    /**
+     * @return The rules this board checks moves with.
+     */
+    public Rules getRules() {
+        return rules;
     }
 
     /**
@@ -74,26 +132,45 @@ public class Board {
      * @return true if the move is valid for the player, false otherwise.
      */
     public boolean validateForPlayer(HexCube move, ArrayList<HexCube> neighbors, boolean isBlue) {
-        Integer moveIndex = cubeToIndexMap.get(move);
-        if (moveIndex == null || hex.freeHexagons[moveIndex] != 0) return false;  //Check if the hex is free
+        return MoveResult.isValid(tryNonCapturingMove(move, neighbors, isBlue));
+    }
+
+    /**
+     * Plays a non-capturing move if it is valid and reports why it was rejected otherwise.
+     *
+     * @param move The hex the player wants to occupy.
+     * @param neighbors A list of neighboring hexes.
+     * @param isBlue Indicates if the current player is Blue.
+     * @return A {@link MoveResult} code.
+     */
+    public int tryNonCapturingMove(HexCube move, ArrayList<HexCube> neighbors, boolean isBlue) {
+        int moveIndex = topology.indexOf(move);
+        if (moveIndex == BoardTopology.NO_CELL) return MoveResult.OFF_BOARD;
+        if (hex.freeHexagons[moveIndex] != 0) return MoveResult.OCCUPIED;  //Check if the hex is free
 
+        boolean touchesOwn = false;
         for (HexCube neighbor : neighbors) {
-            Integer neighborIndex = cubeToIndexMap.get(neighbor);
-            if (neighborIndex != null && ((isBlue && hex.BlueHexagons[neighborIndex] == 1) ||
+            int neighborIndex = topology.indexOf(neighbor);
+            if (neighborIndex != BoardTopology.NO_CELL && ((isBlue && hex.BlueHexagons[neighborIndex] == 1) ||
                     (!isBlue && hex.RedHexagons[neighborIndex] == 1))) {
-                return false;
+                touchesOwn = true;
+                break;
             }
         }
+        if (!rules.canPlace(touchesOwn)) {
+            return MoveResult.TOUCHES_OWN;
+        }
 
-        //Mark the move as occupied by the current player
-        hex.freeHexagons[moveIndex] = 1;
+        //Mark the move as occupied by the current player, joining any groups of ours it touches
+        placeStone(moveIndex, isBlue);
+        int joined = touchesOwn ? adjacentGroupCount(moveIndex, isBlue) : 0;
         if (isBlue) {
-            hex.BlueHexagons[moveIndex] = 1;
+            blueGroups += 1 - joined;
         } else {
-            hex.RedHexagons[moveIndex] = 1;
+            redGroups += 1 - joined;
         }
 
-        return true;
+        return MoveResult.VALID;
     }
 
     /**
@@ -104,35 +181,75 @@ public class Board {
      * @return true if the move is a valid capture, false otherwise.
      */
     public boolean validateCapturingMove(HexCube move, boolean isBlue) {
-        Integer moveIndex = cubeToIndexMap.get(move);
-        if (moveIndex == null || hex.freeHexagons[moveIndex] != 0) {
-            return false;
+        return MoveResult.isValid(tryCapturingMove(move, isBlue));
+    }
+
+    /**
+     * Plays a capturing move if it is valid and reports why it was rejected otherwise.
+     * A played move also reports how many opponent hexes it captured.
+     *
+     * @param move The hex the players want to occupy.
+     * @param isBlue Indicates if the current player is Blue.
+     * @return A {@link MoveResult} code.
+     */
+    public int tryCapturingMove(HexCube move, boolean isBlue) {
+        return capturingMove(move, isBlue, true);
+    }
+
+    /**
+     * Checks what would happen if the player moved on this hex, without changing the board.
+     * The result is the same code {@link Controller#playMove} would return for the move.
+     *
+     * @param move The hex the player wants to occupy.
+     * @param isBlue Indicates if the current player is Blue.
+     * @return A {@link MoveResult} code.
+     */
+    public int checkMove(HexCube move, boolean isBlue) {
+        int result = capturingMove(move, isBlue, false);
+        if (MoveResult.isValid(result) || MoveResult.has(result, MoveResult.CELL_UNAVAILABLE)) {
+            return result;
+        }
+        int[] own = isBlue ? hex.BlueHexagons : hex.RedHexagons;
+        int moveIndex = topology.indexOf(move);
+        boolean touchesOwn = false;
+        for (int direction = 0; direction < 6 && !touchesOwn; direction++) {
+            int neighborIndex = topology.neighbor(moveIndex, direction);
+            touchesOwn = neighborIndex != BoardTopology.NO_CELL && own[neighborIndex] == 1;
         }
+        return rules.canPlace(touchesOwn) ? MoveResult.VALID : result | MoveResult.TOUCHES_OWN;
+    }
+
+    /**
+     * Works out a capturing move, and plays it if asked to and it is valid.
+     *
+     * @param move The hex the players want to occupy.
+     * @param isBlue Indicates if the current player is Blue.
+     * @param play false to leave the board as it was even if the move is valid.
+     * @return A {@link MoveResult} code.
+     */
+    private int capturingMove(HexCube move, boolean isBlue, boolean play) {
+        int moveIndex = topology.indexOf(move);
+        if (moveIndex == BoardTopology.NO_CELL) return MoveResult.OFF_BOARD;
+        if (hex.freeHexagons[moveIndex] != 0) return MoveResult.OCCUPIED;
 
         //Place the player's stone on the hex
-        hex.freeHexagons[moveIndex] = 1;
-        if (isBlue) {
-            hex.BlueHexagons[moveIndex] = 1;
-        } else {
-            hex.RedHexagons[moveIndex] = 1;
-        }
+        placeStone(moveIndex, isBlue);
 
-        ArrayList<Integer> playerGroup = collectGroup(move, isBlue);  //Collect the player's group
+        ArrayList<Integer> playerGroup = collectGroup(moveIndex, isBlue);  //Collect the player's group
         Set<Integer> visited = new HashSet<>();
         ArrayList<ArrayList<Integer>> opponentGroups = new ArrayList<>();
 
         //Loop to capture opponent groups
         for (int playerHexIndex : playerGroup) {
-            HexCube cube = cubeCoordinates.get(playerHexIndex);
-            for (HexCube neighbor : getNeighbors(cube)) {
-                Integer neighborIndex = cubeToIndexMap.get(neighbor);
+            for (int direction = 0; direction < 6; direction++) {
+                int neighborIndex = topology.neighbor(playerHexIndex, direction);
 
-                if (neighborIndex != null) {
+                if (neighborIndex != BoardTopology.NO_CELL && !visited.contains(neighborIndex)) {
                     boolean isOpponentStone = (isBlue && hex.RedHexagons[neighborIndex] == 1) ||
                             (!isBlue && hex.BlueHexagons[neighborIndex] == 1);
 
                     if (isOpponentStone) {
-                        ArrayList<Integer> opponentGroup = collectGroup(neighbor, !isBlue);
+                        ArrayList<Integer> opponentGroup = collectGroup(neighborIndex, !isBlue);
                         visited.addAll(opponentGroup);
                         opponentGroups.add(opponentGroup);
                     }
@@ -143,35 +260,121 @@ public class Board {
         //If no opponent groups were found, the move is not valid
         if (opponentGroups.isEmpty()) {
             resetHex(moveIndex);
-            return false;
+            return MoveResult.NO_OPPONENT;
         }
 
         int mySize = playerGroup.size();
-        //Ensure opponent's group is smaller than the player's group to proceed with the capture
+        //Ensure the rules let the player's group capture every opponent group it touches
         for (ArrayList<Integer> opponentGroup : opponentGroups) {
-            if (opponentGroup.size() >= mySize) {
+            if (!rules.canCapture(mySize, opponentGroup.size())) {
                 resetHex(moveIndex);
-                return false;
+                return MoveResult.GROUP_TOO_SMALL;
             }
         }
 
+        if (!play) {
+            resetHex(moveIndex);
+            return MoveResult.captured(visited.size());
+        }
+
+        //The new stone joins every group of ours it touches into one
+        int joined = adjacentGroupCount(moveIndex, isBlue);
+        if (isBlue) {
+            blueGroups += 1 - joined;
+        } else {
+            redGroups += 1 - joined;
+        }
+
         //Capture the opponent's groups
+        int captured = 0;
         for (ArrayList<Integer> opponentGroup : opponentGroups) {
+            for (int index : opponentGroup) {
+                lastCaptured[captured++] = index;
+            }
             captureGroup(opponentGroup, isBlue);
         }
 
-        return true;
+        return MoveResult.captured(visited.size());
+    }
+
+    /**
+     * Puts a stone of the given colour on a free hexagon and updates the stone counts.
+     *
+     * @param moveIndex The index of the hexagon.
+     * @param isBlue Indicates if the stone is Blue.
+     */
+    private void placeStone(int moveIndex, boolean isBlue) {
+        hex.freeHexagons[moveIndex] = 1;
+        if (isBlue) {
+            hex.BlueHexagons[moveIndex] = 1;
+            blueStones++;
+        } else {
+            hex.RedHexagons[moveIndex] = 1;
+            redStones++;
+        }
+        bitboard.set(moveIndex, isBlue, true);
     }
 
     /**
      * @param moveIndex The index of the hexagon to reset.
      */
     private void resetHex(int moveIndex) {
+        if (hex.BlueHexagons[moveIndex] == 1) blueStones--;
+        if (hex.RedHexagons[moveIndex] == 1) redStones--;
+        bitboard.set(moveIndex, true, false);
+        bitboard.set(moveIndex, false, false);
         hex.freeHexagons[moveIndex] = 0;
         hex.BlueHexagons[moveIndex] = 0;
         hex.RedHexagons[moveIndex] = 0;
     }
 
+    /**
+     * Counts how many separate groups of the player's colour touch a hex, not counting the hex itself.
+     * Neighbours next to each other around the hex are always in the same group, so a search is
+     * only needed when the player's neighbours form more than one run around the hex.
+     *
+     * @param moveIndex The index of the hex to look around.
+     * @param isBlue Indicates if the groups are Blue.
+     * @return The number of distinct adjacent groups.
+     */
+    private int adjacentGroupCount(int moveIndex, boolean isBlue) {
+        int[] stones = isBlue ? hex.BlueHexagons : hex.RedHexagons;
+        int[] runStarts = new int[6];
+        int runs = 0;
+        for (int direction = 0; direction < 6; direction++) {
+            int index = topology.neighbor(moveIndex, direction);
+            int previous = topology.neighbor(moveIndex, (direction + 5) % 6);
+            boolean own = index != BoardTopology.NO_CELL && stones[index] == 1;
+            boolean previousOwn = previous != BoardTopology.NO_CELL && stones[previous] == 1;
+            if (own && !previousOwn) {
+                runStarts[runs++] = index;
+            }
+        }
+        if (runs == 0) {
+            //Either no neighbours of ours, or all six of them around the hex
+            int first = topology.neighbor(moveIndex, 0);
+            return first != BoardTopology.NO_CELL && stones[first] == 1 ? 1 : 0;
+        }
+        if (runs == 1) return 1;
+
+        //Runs may still meet further away, so search from each run with the hex itself taken out
+        int saved = stones[moveIndex];
+        stones[moveIndex] = 0;
+        bitboard.set(moveIndex, isBlue, false);
+        Set<Integer> reached = new HashSet<>();
+        int groups = 0;
+        for (int i = 0; i < runs; i++) {
+            if (reached.contains(runStarts[i])) continue;
+            groups++;
+            if (i < runs - 1) {
+                reached.addAll(collectGroup(runStarts[i], isBlue));
+            }
+        }
+        stones[moveIndex] = saved;
+        bitboard.set(moveIndex, isBlue, saved == 1);
+        return groups;
+    }
+
     /**
      * Collects a group of connected hexes starting from the given hex and color.
      *
@@ -180,8 +383,15 @@ public class Board {
      * @return The group of connected hexes.
      */
     public ArrayList<Integer> collectGroup(HexCube start, boolean isBlue) {
-        Integer startIndex = cubeToIndexMap.get(start);
-        if (startIndex == null) return new ArrayList<>();
+        int startIndex = topology.indexOf(start);
+        if (startIndex == BoardTopology.NO_CELL) return new ArrayList<>();
+        return collectGroup(startIndex, isBlue);
+    }
+
+    private ArrayList<Integer> collectGroup(int startIndex, boolean isBlue) {
+        if (useBitboard) {
+            return bitboard.collectGroup(startIndex, isBlue);
+        }
 
         boolean[] visited = new boolean[hex.freeHexagons.length];
         ArrayList<Integer> group = new ArrayList<>();
@@ -195,10 +405,9 @@ public class Board {
             int current = queue.poll();
             group.add(current);
 
-            HexCube currentCube = cubeCoordinates.get(current);
-            for (HexCube neighbor : getNeighbors(currentCube)) {
-                Integer neighborIndex = cubeToIndexMap.get(neighbor);
-                if (neighborIndex != null && !visited[neighborIndex] && hex.freeHexagons[neighborIndex] == 1) {
+            for (int direction = 0; direction < 6; direction++) {
+                int neighborIndex = topology.neighbor(current, direction);
+                if (neighborIndex != BoardTopology.NO_CELL && !visited[neighborIndex] && hex.freeHexagons[neighborIndex] == 1) {
                     if ((isBlue && hex.BlueHexagons[neighborIndex] == 1) ||
                             (!isBlue && hex.RedHexagons[neighborIndex] == 1)) {
                         queue.add(neighborIndex);
@@ -212,12 +421,23 @@ public class Board {
 
     /**
      * Captures a group of opponent hexes and marks them as free.
+     * The group should be a whole connected group as returned by {@link #collectGroup}.
      *
      * @param group The group of opponent hexes to capture.
      * @param toBlue Indicates the color to capture the hexes as (blue or red).
      */
     public void captureGroup(ArrayList<Integer> group, boolean toBlue) {
+        if (group.isEmpty()) return;
+        if (hex.BlueHexagons[group.get(0)] == 1) {
+            blueGroups--;
+        } else if (hex.RedHexagons[group.get(0)] == 1) {
+            redGroups--;
+        }
         for (int index : group) {
+            if (hex.BlueHexagons[index] == 1) blueStones--;
+            if (hex.RedHexagons[index] == 1) redStones--;
+            bitboard.set(index, true, false);
+            bitboard.set(index, false, false);
             hex.BlueHexagons[index] = 0;
             hex.RedHexagons[index] = 0;
             hex.freeHexagons[index] = 0;
@@ -229,21 +449,22 @@ public class Board {
      * @return true if the hexagon is occupied, false otherwise.
      */
     public boolean isHexagonOccupied(HexCube move) {
-        Integer moveIndex = cubeToIndexMap.get(move);
-        return moveIndex != null && hex.freeHexagons[moveIndex] == 1;
+        int moveIndex = topology.indexOf(move);
+        return moveIndex != BoardTopology.NO_CELL && hex.freeHexagons[moveIndex] == 1;
     }
 
     /**
      * @param move The hex whose neighbour we want.
-     * @return A list of neighboring hexes.
+     * @return A list of neighboring hexes, the board's own HexCube objects.
      */
     public ArrayList<HexCube> getNeighbors(HexCube move) {
-        ArrayList<HexCube> neighbors = new ArrayList<>();
+        ArrayList<HexCube> neighbors = new ArrayList<>(6);
 
         for (int direction = 0; direction < 6; direction++) {
-            HexCube neighbor = move.neighbor(direction);
-            if (cubeToIndexMap.containsKey(neighbor)) {
-                neighbors.add(neighbor);
+            HexCube d = HexCube.direction(direction);
+            int neighborIndex = topology.indexOf(move.q + d.q, move.r + d.r);
+            if (neighborIndex != BoardTopology.NO_CELL) {
+                neighbors.add(topology.getCell(neighborIndex));
             }
         }
         return neighbors;
@@ -259,10 +480,29 @@ public class Board {
     }
 
     /**
-     * @return A Map containing hexes mapped to their index values.
+     * The cells taken by the last capturing move played on this board. Only the first
+     * {@link MoveResult#capturedCount(int)} entries of that move's result are meaningful, and the
+     * array is overwritten by the next capture, so callers must copy what they keep.
+     *
+     * @return The shared array of captured cell indexes.
+     */
+    int[] getLastCaptured() {
+        return lastCaptured;
+    }
+
+    /**
+     * @return The hexes of the board in index order.
+     */
+    public List<HexCube> getCubeCoordinates() {
+        return Collections.unmodifiableList(cubeCoordinates);
+    }
+
+    /**
+     * @return An unmodifiable Map containing hexes mapped to their index values, shared with other boards on the same topology.
+     * The board itself looks hexes up with {@link BoardTopology#indexOf(HexCube)}, which does not allocate.
      */
     public Map<HexCube, Integer> getCubeToIndexMap() {
-        return cubeToIndexMap;
+        return topology.getCubeToIndexMap();
     }
 
 
@@ -273,22 +513,44 @@ public class Board {
      * @return true if either blue or red has no hexes left, false otherwise.
      */
     public boolean checkWin() {
-        boolean blueHasHexes = false;
-        for (int i = 0; i < hex.BlueHexagons.length; i++) {
-            if (hex.BlueHexagons[i] == 1) {
-                blueHasHexes = true;
-                break;
-            }
-        }
+        return blueStones == 0 || redStones == 0;  //If either has no hexes, the game ends
+    }
 
-        boolean redHasHexes = false;
-        for (int i = 0; i < hex.RedHexagons.length; i++) {
-            if (hex.RedHexagons[i] == 1) {
-                redHasHexes = true;
-                break;
-            }
+    /**
+     * Makes this board hold the same stones as another board of the same shape.
+     * The update listener is kept. Used to reset a scratch board to a position without building a new one.
+     *
+     * @param other The board to copy, which must have the same hexes in the same order.
+     */
+    public void copyFrom(Board other) {
+        int cellCount = cubeCoordinates.size();
+        if (other.cubeCoordinates.size() != cellCount) {
+            throw new IllegalArgumentException("Boards have different hexes");
         }
-        return !blueHasHexes || !redHasHexes;  //If either has no hexes, the game ends
+        System.arraycopy(other.hex.freeHexagons, 0, hex.freeHexagons, 0, cellCount);
+        System.arraycopy(other.hex.BlueHexagons, 0, hex.BlueHexagons, 0, cellCount);
+        System.arraycopy(other.hex.RedHexagons, 0, hex.RedHexagons, 0, cellCount);
+        blueStones = other.blueStones;
+        redStones = other.redStones;
+        blueGroups = other.blueGroups;
+        redGroups = other.redGroups;
+        bitboard.copyFrom(other.bitboard);
+    }
+
+    /**
+     * @param isBlue Indicates which colour to count.
+     * @return The number of stones of that colour on the board.
+     */
+    public int getStoneCount(boolean isBlue) {
+        return isBlue ? blueStones : redStones;
+    }
+
+    /**
+     * @param isBlue Indicates which colour to count.
+     * @return The number of separate groups of that colour on the board.
+     */
+    public int getGroupCount(boolean isBlue) {
+        return isBlue ? blueGroups : redGroups;
     }
 
 
@@ -304,21 +566,17 @@ public class Board {
         private int[] RedHexagons;
 
         /**
-         * Constructs a Hex instance for the given grid size.
-         * Initializes arrays for tracking the state of each hexagon (free, blue, or red).
+         * Constructs a Hex instance for a board with the given number of hexagons.
+         * Initializes arrays for tracking the state of each hexagon (free, blue, or red),
+         * one entry per cell index.
          *
-         * @param gridSize The size of the hex grid.
+         * @param cellCount The number of hexagons on the board.
          */
-        public Hex(int gridSize) {
-            int totalHexagons = gridSize * gridSize;
-            freeHexagons = new int[totalHexagons];
-            BlueHexagons = new int[totalHexagons];
-            RedHexagons = new int[totalHexagons];
-
-            //Initialize all hexagons as free
-            for (int i = 0; i < totalHexagons; i++) {
-                freeHexagons[i] = 0;
-            }
+        public Hex(int cellCount) {
+            //Java zeroes new arrays, so every hexagon starts free
+            freeHexagons = new int[cellCount];
+            BlueHexagons = new int[cellCount];
+            RedHexagons = new int[cellCount];
         }
 
         /**
@@ -0,0 +1,317 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The BoardTopology class is a flat, primitive view of a board's cells.
+ * It stores the cube coordinates of each cell and the index of its neighbour in each of
+ * the six directions, using the same cell indexes as {@link Board#getCubeToIndexMap()}.
+ * Code that walks the board many times can use it instead of HexCube objects and map lookups.
+ *
+ * It also holds the one canonical HexCube of each cell. {@link #indexOf(HexCube)} finds a cell
+ * by its (q, r) packed into an int, in an open addressing table, without allocating anything.
+ *
+ * Topologies of the standard hexagon boards are precomputed into resources named
+ * topology-N.bin, so short-lived game processes can load them instead of working them out.
+ * Run main to regenerate them.
+ */
+public final class BoardTopology {
+
+    /** Neighbour index used when there is no cell in that direction. */
+    public static final int NO_CELL = -1;
+
+    private static final int MAGIC = 0x48585450;  //"HXTP"
+
+    private final int[] q;
+    private final int[] r;
+    private final int[] neighbors;  //Six entries per cell, one per HexCube direction
+    private final ArrayList<HexCube> cells;
+    private final int[] slots;      //Open addressing table of cell index + 1 by packed (q, r), 0 when empty
+    private final int slotShift;
+    private volatile Map<HexCube, Integer> cubeToIndexMap;  //Made when first asked for, never changed after
+
+    /**
+     * @param cells The canonical hexes in index order, or null to make them.
+     * @param neighbors The neighbour table, or null to work it out.
+     */
+    private BoardTopology(int[] q, int[] r, ArrayList<HexCube> cells, int[] neighbors) {
+        this.q = q;
+        this.r = r;
+        if (cells == null) {
+            cells = new ArrayList<>(q.length);
+            for (int i = 0; i < q.length; i++) {
+                cells.add(new HexCube(q[i], r[i], -q[i] - r[i]));
+            }
+        }
+        this.cells = cells;
+
+        //At least twice as many slots as cells keeps the probes short
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, q.length * 2 - 1));
+        slots = new int[1 << bits];
+        slotShift = 32 - bits;
+        for (int i = 0; i < q.length; i++) {
+            int slot = slot(pack(q[i], r[i]));
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = i + 1;
+        }
+
+        if (neighbors == null) {
+            neighbors = new int[q.length * 6];
+            for (int i = 0; i < q.length; i++) {
+                for (int direction = 0; direction < 6; direction++) {
+                    HexCube d = HexCube.direction(direction);
+                    neighbors[i * 6 + direction] = indexOf(q[i] + d.q, r[i] + d.r);
+                }
+            }
+        }
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Builds the topology of a board from its cube to index map.
+     *
+     * @param cubeToIndexMap The map of each hex to its cell index.
+     * @return The topology for those cells.
+     */
+    public static BoardTopology of(Map<HexCube, Integer> cubeToIndexMap) {
+        int[] q = new int[cubeToIndexMap.size()];
+        int[] r = new int[cubeToIndexMap.size()];
+        for (Map.Entry<HexCube, Integer> entry : cubeToIndexMap.entrySet()) {
+            q[entry.getValue()] = entry.getKey().q;
+            r[entry.getValue()] = entry.getKey().r;
+        }
+        return new BoardTopology(q, r, null, null);
+    }
+
+    /**
+     * Returns the topology of the standard hexagon board, loading it from the precomputed
+     * resource when there is one and working it out otherwise.
+     *
+     * @param baseN The number of hexes from the centre to an edge, not counting the centre.
+     * @return The topology, whose cells are in the same order as {@link #hexagon(int)}.
+     */
+    public static BoardTopology standard(int baseN) {
+        try (InputStream in = BoardTopology.class.getResourceAsStream(resourceName(baseN))) {
+            if (in != null) {
+                return read(new DataInputStream(new BufferedInputStream(in)));
+            }
+        } catch (IOException e) {
+            //Fall through and work it out instead
+        }
+        return of(hexagon(baseN));
+    }
+
+    /**
+     * @param cells The hexes of the board in index order.
+     * @return The topology for those cells.
+     */
+    public static BoardTopology of(ArrayList<HexCube> cells) {
+        int[] q = new int[cells.size()];
+        int[] r = new int[cells.size()];
+        for (int i = 0; i < cells.size(); i++) {
+            q[i] = cells.get(i).q;
+            r[i] = cells.get(i).r;
+        }
+        return new BoardTopology(q, r, cells, null);
+    }
+
+    static String resourceName(int baseN) {
+        return "topology-" + baseN + ".bin";
+    }
+
+    /**
+     * Reads a topology written by {@link #write}.
+     */
+    static BoardTopology read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a board topology");
+        int cellCount = in.readInt();
+        int[] q = new int[cellCount];
+        int[] r = new int[cellCount];
+        int[] neighbors = new int[cellCount * 6];
+        for (int i = 0; i < cellCount; i++) {
+            q[i] = in.readInt();
+            r[i] = in.readInt();
+            for (int direction = 0; direction < 6; direction++) {
+                neighbors[i * 6 + direction] = in.readInt();
+            }
+        }
+        return new BoardTopology(q, r, null, neighbors);
+    }
+
+    /**
+     * Writes the topology as the magic number, the cell count, and then q, r and the six neighbours of each cell.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(q.length);
+        for (int i = 0; i < q.length; i++) {
+            out.writeInt(q[i]);
+            out.writeInt(r[i]);
+            for (int direction = 0; direction < 6; direction++) {
+                out.writeInt(neighbors[i * 6 + direction]);
+            }
+        }
+    }
+
+    /**
+     * Writes the precomputed standard board resources.
+     * Usage: BoardTopology &lt;resource directory&gt; &lt;baseN&gt;...
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            int baseN = Integer.parseInt(args[i]);
+            Path file = directory.resolve(resourceName(baseN));
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                of(hexagon(baseN)).write(out);
+            }
+            System.out.println("Wrote " + file);
+        }
+    }
+
+    /**
+     * Generates the hexes of a hexagon shaped board, in the same order as the game window draws them.
+     *
+     * @param baseN The number of hexes from the centre to an edge, not counting the centre.
+     * @return The hexes of the board.
+     */
+    public static ArrayList<HexCube> hexagon(int baseN) {
+        ArrayList<HexCube> cells = new ArrayList<>();
+        for (int q = -baseN; q <= baseN; q++) {
+            for (int r = Math.max(-baseN, -q - baseN); r <= Math.min(baseN, -q + baseN); r++) {
+                cells.add(new HexCube(q, r, -q - r));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Packs a coordinate pair into an int, distinct for every pair with q and r from -32768 to 32767.
+     * s is left out as it is always -q - r.
+     */
+    static int pack(int q, int r) {
+        return (q << 16) | (r & 0xFFFF);
+    }
+
+    private int slot(int packed) {
+        return (packed * 0x9E3779B9) >>> slotShift;
+    }
+
+    /**
+     * @param q The q coordinate.
+     * @param r The r coordinate.
+     * @return The index of the cell, or {@link #NO_CELL} if it is not on the board.
+     */
+    public int indexOf(int q, int r) {
+        int packed = pack(q, r);
+        for (int slot = slot(packed); slots[slot] != 0; slot = (slot + 1) & (slots.length - 1)) {
+            int cell = slots[slot] - 1;
+            if (this.q[cell] == q && this.r[cell] == r) return cell;
+        }
+        return NO_CELL;
+    }
+
+    /**
+     * @param cube A hex, which need not be the canonical one, or null.
+     * @return The index of the cell, or {@link #NO_CELL} if it is null or not on the board.
+     */
+    public int indexOf(HexCube cube) {
+        return cube == null ? NO_CELL : indexOf(cube.q, cube.r);
+    }
+
+    /**
+     * @param cell A cell index.
+     * @return The canonical hex of the cell.
+     */
+    public HexCube getCell(int cell) {
+        return cells.get(cell);
+    }
+
+    /**
+     * @param cube A hex.
+     * @return The canonical hex with the same coordinates, or null if it is null or not on the board.
+     */
+    public HexCube intern(HexCube cube) {
+        int cell = indexOf(cube);
+        return cell == NO_CELL ? null : cells.get(cell);
+    }
+
+    /**
+     * @return The number of cells on the board.
+     */
+    public int getCellCount() {
+        return q.length;
+    }
+
+    /**
+     * @return The canonical hexes of the board in index order. Callers must not modify the list.
+     */
+    public ArrayList<HexCube> getCells() {
+        return cells;
+    }
+
+    /**
+     * A map from each hex to its cell index, for code written against {@link Board#getCubeToIndexMap()}.
+     * It is made on first use and shared by every board and thread using this topology.
+     * Two threads asking at once may both build it, but they build the same unmodifiable map.
+     *
+     * @return An unmodifiable map of hexes to cell indexes.
+     */
+    public Map<HexCube, Integer> getCubeToIndexMap() {
+        Map<HexCube, Integer> map = cubeToIndexMap;
+        if (map == null) {
+            HashMap<HexCube, Integer> built = new HashMap<>(cells.size() * 4 / 3 + 1);
+            for (int i = 0; i < cells.size(); i++) {
+                built.put(cells.get(i), i);
+            }
+            map = Collections.unmodifiableMap(built);
+            cubeToIndexMap = map;
+        }
+        return map;
+    }
+
+    /**
+     * @param cell A cell index.
+     * @return The q coordinate of the cell.
+     */
+    public int getQ(int cell) {
+        return q[cell];
+    }
+
+    /**
+     * @param cell A cell index.
+     * @return The r coordinate of the cell.
+     */
+    public int getR(int cell) {
+        return r[cell];
+    }
+
+    /**
+     * @param cell A cell index.
+     * @param direction A HexCube direction from 0 to 5.
+     * @return The index of the neighbouring cell, or {@link #NO_CELL} if it is off the board.
+     */
+    public int neighbor(int cell, int direction) {
+        return neighbors[cell * 6 + direction];
+    }
+
+    /**
+     * @return The neighbour table, six entries per cell. Callers must not modify it.
+     */
+    int[] neighborTable() {
+        return neighbors;
+    }
+}
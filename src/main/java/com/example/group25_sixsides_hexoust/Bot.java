@@ -0,0 +1,15 @@
+package com.example.group25_sixsides_hexoust;
+
+/**
+ * A Bot chooses moves for whichever player's turn it is in a game run by a {@link Controller}.
+ */
+public interface Bot {
+
+    /**
+     * Chooses a move for the current player. The bot must not change the game.
+     *
+     * @param controller The game to move in.
+     * @return A legal hex to take, or null if the current player has no legal move.
+     */
+    HexCube chooseMove(Controller controller);
+}
@@ -15,6 +15,7 @@ public class Controller {
 
     private State state = State.RED_TURN;
     private Board board;
+    private MoveListener moveListener;
 
     /**
      * Constructs a Controller instance with a given set of cube coordinates.
@@ -26,6 +27,61 @@ public class Controller {
         board = new Board(cubeCoordinates);
     }
 
+    /**
+     * Constructs a Controller instance that plays a rules variant.
+     *
+     * @param cubeCoordinates A list of hex coordinates representing the game board.
+     * @param rules The rules to play by.
+     */
+    public Controller(ArrayList<HexCube> cubeCoordinates, Rules rules) {
+        board = new Board(cubeCoordinates, rules);
+    }
+
+    /**
+     * Constructs a Controller instance on a board whose topology is already worked out.
+     *
+     * @param topology The cells of the board and their neighbours, see {@link BoardTopology#standard(int)}.
+     * @param rules The rules to play by.
+     */
+    public Controller(BoardTopology topology, Rules rules) {
+        board = new Board(topology, rules);
+    }
+
+    /**
+     * Constructs a Controller instance holding a copy of another game, which can be played on
+     * without changing the original. The copy has no board update listener or move listener.
+     *
+     * @param other The game to copy.
+     */
+    public Controller(Controller other) {
+        board = new Board(other.board.getTopology(), other.board.getRules());
+        copyFrom(other);
+    }
+
+    /**
+     * Resets this game to the position of another game on the same board.
+     *
+     * @param other The game to copy.
+     */
+    public void copyFrom(Controller other) {
+        board.copyFrom(other.board);
+        state = other.state;
+    }
+
+    /**
+     * @param listener The listener to be told about every move played, or null for none.
+     */
+    public void setMoveListener(MoveListener listener) {
+        this.moveListener = listener;
+    }
+
+    /**
+     * @return The listener told about every move played, or null for none.
+     */
+    public MoveListener getMoveListener() {
+        return moveListener;
+    }
+
     /**
      * @return The Board object representing the current state of the game.
      */
@@ -40,6 +96,30 @@ public class Controller {
         return state;
     }
 
+    /**
+     * @return true once either player has won.
+     */
+    public boolean isGameOver() {
+        return state == State.BLUE_WON || state == State.RED_WON;
+    }
+
+    /**
+     * @return true if it is Blue's turn.
+     */
+    public boolean isBlueTurn() {
+        return state == State.BLUE_TURN;
+    }
+
+    /**
+     * Checks whether the current player could move on this hex, without changing the game.
+     *
+     * @param move The hex the player wants to take.
+     * @return The {@link MoveResult} code {@link #playMove} would return.
+     */
+    public int checkMove(HexCube move) {
+        return board.checkMove(move, isBlueTurn());
+    }
+
     /**
      * Handles a player move by validating it, updating the board, and changing the game state.
      * It checks for valid CP and NCP and updates the game accordingly.
@@ -48,26 +128,41 @@ public class Controller {
      * @return true if the move was valid, false if the move was invalid.
      */
     public boolean handleMove(HexCube move) {
+        return MoveResult.isValid(playMove(move));
+    }
+
+    /**
+     * Handles a player move like {@link #handleMove(HexCube)} but reports the outcome as a
+     * {@link MoveResult} code, so callers can tell why a move was rejected and how much it captured.
+     *
+     * @param move The hex the player wants to take.
+     * @return A {@link MoveResult} code.
+     */
+    public int playMove(HexCube move) {
         if (board.isHexagonOccupied(move)) {
-            return false;
+            return MoveResult.OCCUPIED;
         }
 
         boolean isBlue = (state == State.BLUE_TURN);
-        ArrayList<HexCube> neighbors = board.getNeighbors(move);
-        boolean moveMade = false;
 
         //Check for CP
-        moveMade = board.validateCapturingMove(move, isBlue);
-        if (moveMade) {
+        int result = board.tryCapturingMove(move, isBlue);
+        if (MoveResult.isValid(result)) {
             handleCapturingMove(isBlue);
-        } else {
-            moveMade = handleNonCapturingMove(move, isBlue, neighbors);
+        } else if (!MoveResult.has(result, MoveResult.OFF_BOARD)) {
+            int nonCapturing = handleNonCapturingMove(move, isBlue, board.getNeighbors(move));
+            //Keep both rejection reasons when neither kind of move is allowed
+            result = MoveResult.isValid(nonCapturing) ? nonCapturing : result | nonCapturing;
         }
 
-        if (moveMade) {
+        if (MoveResult.isValid(result)) {
             board.updateBoard();
+            if (moveListener != null) {
+                int captured = MoveResult.isCapture(result) ? MoveResult.capturedCount(result) : 0;
+                moveListener.onMove(this, board.getTopology().indexOf(move), isBlue, board.getLastCaptured(), captured);
+            }
         }
-        return moveMade;
+        return result;
     }
 
     /**
@@ -87,18 +182,13 @@ public class Controller {
      * @param move The Hex the player wants to occupy.
      * @param isBlue Indicates if the current player is Blue.
      * @param neighbors A list of neighboring hexes.
-     * @return true if the move is valid, false otherwise.
-     */
-    private boolean handleNonCapturingMove(HexCube move, boolean isBlue, ArrayList<HexCube> neighbors) {
-        boolean moveMade = false;
-        if (isBlue) {
-            moveMade = board.validateForBlue(move, neighbors);
-        } else {
-            moveMade = board.validateForRed(move, neighbors);
-        }
-        if (moveMade) {
+     * @return A {@link MoveResult} code.
+     */
+    private int handleNonCapturingMove(HexCube move, boolean isBlue, ArrayList<HexCube> neighbors) {
+        int result = board.tryNonCapturingMove(move, neighbors, isBlue);
+        if (MoveResult.isValid(result)) {
             state = isBlue ? State.RED_TURN : State.BLUE_TURN;
         }
-        return moveMade;
+        return result;
     }
 }
@@ -0,0 +1,206 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.Arrays;
+
+/**
+ * The EloRatings class keeps the head to head results of a fixed set of players and fits
+ * Elo ratings to them with the Bradley-Terry model.
+ *
+ * Only the totals for each pair of players are kept, so the memory used depends on the number
+ * of players and not on the number of games. Ratings are fitted with the minorization-maximization
+ * iteration and are relative, with the average rating 0. The confidence intervals come from the
+ * curvature of the likelihood at the fitted ratings.
+ */
+public final class EloRatings {
+
+    private static final double ELO_PER_NATURAL_LOG = 400 / Math.log(10);
+    private static final double Z_95 = 1.959964;
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final double TOLERANCE = 1e-10;
+
+    private final int playerCount;
+    private final double[][] points;  //points[a][b] is what a scored against b, a draw is half a point
+    private final int[][] games;      //games[a][b] is the number of games between a and b
+
+    /**
+     * @param playerCount The number of players, numbered from 0.
+     */
+    public EloRatings(int playerCount) {
+        this.playerCount = playerCount;
+        points = new double[playerCount][playerCount];
+        games = new int[playerCount][playerCount];
+    }
+
+    /**
+     * Records one game.
+     *
+     * @param a One player.
+     * @param b The other player.
+     * @param scoreA 1 if a won, 0 if b won, 0.5 for a draw.
+     */
+    public void add(int a, int b, double scoreA) {
+        points[a][b] += scoreA;
+        points[b][a] += 1 - scoreA;
+        games[a][b]++;
+        games[b][a]++;
+    }
+
+    /**
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * @param player A player.
+     * @return The number of games the player has played.
+     */
+    public int getGames(int player) {
+        int total = 0;
+        for (int other = 0; other < playerCount; other++) {
+            total += games[player][other];
+        }
+        return total;
+    }
+
+    /**
+     * @param player A player.
+     * @return The points the player has scored, one per win and a half per draw.
+     */
+    public double getScore(int player) {
+        double total = 0;
+        for (int other = 0; other < playerCount; other++) {
+            total += points[player][other];
+        }
+        return total;
+    }
+
+    /**
+     * @return true if the two players have played each other.
+     */
+    public boolean havePlayed(int a, int b) {
+        return games[a][b] > 0;
+    }
+
+    /**
+     * Fits ratings to the results so far. Every pair that has played is also given one
+     * drawn game, so a player who won or lost every game still gets a finite rating.
+     *
+     * @return The Elo rating of each player, averaging 0.
+     */
+    public double[] ratings() {
+        double[] strength = new double[playerCount];  //Bradley-Terry strengths, rating = 400 log10(strength)
+        Arrays.fill(strength, 1);
+        double[] wins = new double[playerCount];
+        for (int a = 0; a < playerCount; a++) {
+            for (int b = 0; b < playerCount; b++) {
+                if (games[a][b] > 0) wins[a] += points[a][b] + 0.5;
+            }
+        }
+
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double change = 0;
+            double logSum = 0;
+            double[] next = new double[playerCount];
+            for (int a = 0; a < playerCount; a++) {
+                double denominator = 0;
+                for (int b = 0; b < playerCount; b++) {
+                    if (games[a][b] > 0) denominator += (games[a][b] + 1) / (strength[a] + strength[b]);
+                }
+                next[a] = denominator > 0 ? wins[a] / denominator : 1;
+                logSum += Math.log(next[a]);
+            }
+            double scale = Math.exp(-logSum / playerCount);  //Keep the average log strength at 0
+            for (int a = 0; a < playerCount; a++) {
+                next[a] *= scale;
+                change = Math.max(change, Math.abs(Math.log(next[a] / strength[a])));
+            }
+            strength = next;
+            if (change < TOLERANCE) break;
+        }
+
+        double[] ratings = new double[playerCount];
+        for (int a = 0; a < playerCount; a++) {
+            ratings[a] = ELO_PER_NATURAL_LOG * Math.log(strength[a]);
+        }
+        return ratings;
+    }
+
+    /**
+     * Works out how far each rating could be off, from the same games as {@link #ratings()}.
+     *
+     * @param ratings Ratings returned by {@link #ratings()}.
+     * @return The half width of the 95% confidence interval of each rating, in Elo,
+     *         or infinity for a player with no games.
+     */
+    public double[] confidence(double[] ratings) {
+        //Fisher information of the log strengths; it is singular since only differences
+        //matter, so add the all ones matrix and take it off the inverse again
+        double[][] information = new double[playerCount][playerCount];
+        for (int a = 0; a < playerCount; a++) {
+            for (int b = 0; b < playerCount; b++) {
+                if (a == b || games[a][b] == 0) continue;
+                double p = 1 / (1 + Math.exp((ratings[b] - ratings[a]) / ELO_PER_NATURAL_LOG));
+                double weight = (games[a][b] + 1) * p * (1 - p);
+                information[a][a] += weight;
+                information[a][b] -= weight;
+            }
+        }
+        for (int a = 0; a < playerCount; a++) {
+            for (int b = 0; b < playerCount; b++) {
+                information[a][b] += 1;
+            }
+        }
+
+        double[][] covariance = invert(information);
+        double[] halfWidths = new double[playerCount];
+        for (int a = 0; a < playerCount; a++) {
+            double variance = covariance == null ? Double.NaN : covariance[a][a] - 1.0 / (playerCount * playerCount);
+            halfWidths[a] = getGames(a) == 0 || !(variance >= 0)
+                    ? Double.POSITIVE_INFINITY
+                    : Z_95 * ELO_PER_NATURAL_LOG * Math.sqrt(variance);
+        }
+        return halfWidths;
+    }
+
+    /**
+     * Inverts a matrix by Gauss-Jordan elimination with partial pivoting.
+     *
+     * @return The inverse, or null if the matrix is singular.
+     */
+    private static double[][] invert(double[][] matrix) {
+        int n = matrix.length;
+        double[][] a = new double[n][2 * n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(matrix[i], 0, a[i], 0, n);
+            a[i][n + i] = 1;
+        }
+        for (int column = 0; column < n; column++) {
+            int pivot = column;
+            for (int row = column + 1; row < n; row++) {
+                if (Math.abs(a[row][column]) > Math.abs(a[pivot][column])) pivot = row;
+            }
+            if (Math.abs(a[pivot][column]) < 1e-12) return null;
+            double[] swap = a[column];
+            a[column] = a[pivot];
+            a[pivot] = swap;
+
+            double divisor = a[column][column];
+            for (int k = 0; k < 2 * n; k++) {
+                a[column][k] /= divisor;
+            }
+            for (int row = 0; row < n; row++) {
+                double factor = a[row][column];
+                if (row == column || factor == 0) continue;
+                for (int k = 0; k < 2 * n; k++) {
+                    a[row][k] -= factor * a[column][k];
+                }
+            }
+        }
+        double[][] inverse = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a[i], n, inverse[i], 0, n);
+        }
+        return inverse;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.group25_sixsides_hexoust;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * The FeatureEncoder class turns a position into the float planes a learned evaluator reads.
+ * Each plane holds one float per cell, in cell index order, and the planes of one position
+ * follow each other in the order of the plane constants. Planes are from the point of view of
+ * the player to move, so the same network plays both colours.
+ *
+ * Positions are written straight into a {@link FloatBuffer}, normally a direct one from
+ * {@link #allocate(int)} that is reused batch after batch. An encoder reuses its own scratch
+ * arrays, so it does not allocate but must only be used by one thread at a time.
+ */
+public final class FeatureEncoder {
+
+    /** Plane offsets within the planes of one position. */
+    public static final int OWN_STONES = 0;           //1 where the player to move has a stone
+    public static final int OPPONENT_STONES = 1;      //1 where the opponent has a stone
+    public static final int OWN_GROUP_SIZE = 2;       //Size of the player's group on each of its stones, over the cell count
+    public static final int OPPONENT_GROUP_SIZE = 3;  //The same for the opponent's groups
+    public static final int BLUE_TO_MOVE = 4;         //1 everywhere when blue is to move
+    public static final int PLANE_COUNT = 5;
+
+    private final int cellCount;
+    private final int[] neighbors;
+
+    // scratch space for the group sizes
+    private final int[] label;
+    private final int[] groupSize;
+    private final int[] stack;
+
+    /**
+     * @param topology The board the positions are played on.
+     */
+    public FeatureEncoder(BoardTopology topology) {
+        this.cellCount = topology.getCellCount();
+        this.neighbors = topology.neighborTable();
+        label = new int[cellCount];
+        groupSize = new int[cellCount];
+        stack = new int[cellCount];
+    }
+
+    /**
+     * @return The number of floats in one encoded position.
+     */
+    public int getInputSize() {
+        return PLANE_COUNT * cellCount;
+    }
+
+    /**
+     * @param positions The number of positions the buffer must hold.
+     * @return A direct, native order buffer for that many positions.
+     */
+    public FloatBuffer allocate(int positions) {
+        return ByteBuffer.allocateDirect(positions * getInputSize() * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+
+    /**
+     * Writes the planes of a position. Only absolute puts are used, so the buffer's position is
+     * left alone and threads may write different positions of one buffer at the same time.
+     *
+     * @param board The board to encode.
+     * @param blueToMove Indicates if Blue is the player to move.
+     * @param out The buffer to write into.
+     * @param position The index of the position within the buffer.
+     */
+    public void encode(Board board, boolean blueToMove, FloatBuffer out, int position) {
+        int[] own = blueToMove ? board.getHex().getBlueHexagons() : board.getHex().getRedHexagons();
+        int[] opponent = blueToMove ? board.getHex().getRedHexagons() : board.getHex().getBlueHexagons();
+        labelGroups(own, opponent);
+
+        int base = position * getInputSize();
+        float blue = blueToMove ? 1 : 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            float size = label[cell] < 0 ? 0 : (float) groupSize[label[cell]] / cellCount;
+            boolean isOwn = own[cell] == 1;
+            boolean isOpponent = opponent[cell] == 1;
+            out.put(base + OWN_STONES * cellCount + cell, isOwn ? 1 : 0);
+            out.put(base + OPPONENT_STONES * cellCount + cell, isOpponent ? 1 : 0);
+            out.put(base + OWN_GROUP_SIZE * cellCount + cell, isOwn ? size : 0);
+            out.put(base + OPPONENT_GROUP_SIZE * cellCount + cell, isOpponent ? size : 0);
+            out.put(base + BLUE_TO_MOVE * cellCount + cell, blue);
+        }
+    }
+
+    /**
+     * Labels every stone with its group and counts the stones in each group. Empty cells get -1.
+     */
+    private void labelGroups(int[] own, int[] opponent) {
+        Arrays.fill(label, -1);
+        int groups = 0;
+        for (int start = 0; start < cellCount; start++) {
+            if (label[start] >= 0 || (own[start] == 0 && opponent[start] == 0)) continue;
+            int[] colour = own[start] == 1 ? own : opponent;
+            int size = 0;
+            int top = 0;
+            stack[top++] = start;
+            label[start] = groups;
+            while (top > 0) {
+                int cell = stack[--top];
+                size++;
+                for (int direction = 0; direction < 6; direction++) {
+                    int next = neighbors[cell * 6 + direction];
+                    if (next != BoardTopology.NO_CELL && label[next] < 0 && colour[next] == 1) {
+                        label[next] = groups;
+                        stack[top++] = next;
+                    }
+                }
+            }
+            groupSize[groups++] = size;
+        }
+    }
+}
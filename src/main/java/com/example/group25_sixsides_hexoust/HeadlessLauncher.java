@@ -0,0 +1,114 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The HeadlessLauncher class runs a short batch of self-play games with no window.
+ * It only touches the game logic classes, so it can be started on the class path without
+ * resolving the JavaFX modules, and its classes can be put in an AppCDS archive (see README).
+ * The board topology comes from the precomputed resource, and the launcher reports how long
+ * the process took to reach its first move.
+ *
+ * With --cds FILE it runs the games in a new JVM started from that class data archive, first
+ * recording the archive in a JVM of its own if the file does not exist yet. Only classes loaded
+ * from jars are archived, so start it with the classes packaged in a jar on the class path.
+ *
+ * Usage: HeadlessLauncher [--base N] [--games G] [--rules NAME] [--seed S] [--cds FILE]
+ */
+public class HeadlessLauncher {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long mainStarted = System.nanoTime();
+        int baseN = 6;
+        int games = 1;
+        long seed = 25;
+        Rules rules = Rules.STANDARD;
+        Path archive = null;
+        List<String> gameArgs = new ArrayList<>();  //The options without --cds, for the JVMs it starts
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--base" -> baseN = Integer.parseInt(args[++i]);
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--rules" -> rules = Rules.named(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--cds" -> archive = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            if (!args[i - 1].equals("--cds")) gameArgs.addAll(List.of(args[i - 1], args[i]));
+        }
+        if (archive != null) {
+            runWithArchive(archive, gameArgs);
+            return;
+        }
+
+        BoardTopology topology = BoardTopology.standard(baseN);
+        long topologyLoaded = System.nanoTime();
+
+        Bot bot = new RandomBot(new Random(seed));
+        Controller first = new Controller(topology, rules);
+        first.handleMove(bot.chooseMove(first));
+        long firstMove = System.nanoTime();
+
+        long moves = 1;
+        for (int game = 0; game < games; game++) {
+            Controller controller = game == 0 ? first : new Controller(topology, rules);
+            HexCube move;
+            while (!controller.isGameOver() && (move = bot.chooseMove(controller)) != null) {
+                controller.handleMove(move);
+                moves++;
+            }
+        }
+        long finished = System.nanoTime();
+
+        System.out.printf("JVM start to main:      %s%n", sinceJvmStart(mainStarted));
+        System.out.printf("Topology load:          %.2f ms (%d cells)%n", (topologyLoaded - mainStarted) / 1e6, topology.getCellCount());
+        System.out.printf("Time to first move:     %s%n", sinceJvmStart(firstMove));
+        System.out.printf("Games:                  %d games, %d moves in %.1f ms%n", games, moves, (finished - firstMove) / 1e6);
+    }
+
+    /**
+     * Records the archive if it is missing, then runs the games in a JVM that maps it.
+     *
+     * @param archive The class data archive file.
+     * @param gameArgs The options to pass on.
+     */
+    private static void runWithArchive(Path archive, List<String> gameArgs) throws IOException, InterruptedException {
+        if (!Files.exists(archive)) {
+            System.out.println("Recording class data archive " + archive);
+            runChild("-XX:ArchiveClassesAtExit=" + archive, gameArgs);
+            if (!Files.exists(archive)) throw new IOException("The JVM did not write " + archive);
+        }
+        runChild("-XX:SharedArchiveFile=" + archive, gameArgs);
+    }
+
+    /**
+     * Runs this launcher in a new JVM with one extra JVM option, on the same class path.
+     */
+    private static void runChild(String jvmOption, List<String> gameArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java", jvmOption,
+                "-cp", System.getProperty("java.class.path"), HeadlessLauncher.class.getName()));
+        command.addAll(gameArgs);
+        int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exitCode != 0) throw new IOException("The launcher exited with " + exitCode);
+    }
+
+    /**
+     * @return How long after the JVM started the nanoTime reading was taken, or "unknown".
+     */
+    private static String sinceJvmStart(long nanoTime) {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> {
+                    Instant at = Instant.now().minusNanos(System.nanoTime() - nanoTime);
+                    return String.format("%.1f ms", Duration.between(start, at).toNanos() / 1e6);
+                })
+                .orElse("unknown");
+    }
+}
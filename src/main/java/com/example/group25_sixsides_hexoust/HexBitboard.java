@@ -0,0 +1,173 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The HexBitboard class keeps one bit per cell for each colour and finds groups by flood fill
+ * on those bits instead of visiting cells one at a time.
+ *
+ * Cells are laid out in rows of constant r, one bit per q, with one spare bit at the end of
+ * every row that is never part of the board. Moving one step in any of the six directions is
+ * then a shift of the whole bit array by a fixed amount (1, the row width, or the row width
+ * minus one), and a step off the side of a row lands on a spare bit, which no stone ever sets.
+ * A group is grown from its first stone by shifting it six ways and keeping the bits that are
+ * the same colour, until it stops growing. Each step handles 64 cells per long.
+ */
+public class HexBitboard {
+
+    private final int width;      //Bits per row, including the spare bit
+    private final int words;
+    private final int[] bitOf;    //Bit of each cell index
+    private final int[] cellOf;   //Cell index of each bit, -1 for bits that are not on the board
+    private final int[] offsets;  //Bit offset of each HexCube direction
+    private final long[] blue;
+    private final long[] red;
+
+    // scratch space for fill()
+    private final long[] group;
+    private final long[] grown;
+
+    /**
+     * @param topology The cells of the board.
+     */
+    public HexBitboard(BoardTopology topology) {
+        int cellCount = topology.getCellCount();
+        int minQ = Integer.MAX_VALUE, maxQ = Integer.MIN_VALUE, minR = Integer.MAX_VALUE, maxR = Integer.MIN_VALUE;
+        for (int i = 0; i < cellCount; i++) {
+            minQ = Math.min(minQ, topology.getQ(i));
+            maxQ = Math.max(maxQ, topology.getQ(i));
+            minR = Math.min(minR, topology.getR(i));
+            maxR = Math.max(maxR, topology.getR(i));
+        }
+        if (cellCount == 0) {
+            minQ = maxQ = minR = maxR = 0;
+        }
+        width = maxQ - minQ + 2;
+        int bits = width * (maxR - minR + 1);
+        words = (bits + 63) >>> 6;
+
+        bitOf = new int[cellCount];
+        cellOf = new int[words * 64];
+        Arrays.fill(cellOf, -1);
+        for (int i = 0; i < cellCount; i++) {
+            int bit = (topology.getR(i) - minR) * width + (topology.getQ(i) - minQ);
+            bitOf[i] = bit;
+            cellOf[bit] = i;
+        }
+
+        offsets = new int[6];
+        for (int direction = 0; direction < 6; direction++) {
+            HexCube d = HexCube.direction(direction);
+            offsets[direction] = d.r * width + d.q;
+        }
+
+        blue = new long[words];
+        red = new long[words];
+        group = new long[words];
+        grown = new long[words];
+    }
+
+    /**
+     * Records a stone, or removes it.
+     *
+     * @param cell The cell index.
+     * @param isBlue Indicates which colour's bits to change.
+     * @param present true to set the stone, false to clear it.
+     */
+    public void set(int cell, boolean isBlue, boolean present) {
+        long[] stones = isBlue ? blue : red;
+        int bit = bitOf[cell];
+        if (present) {
+            stones[bit >>> 6] |= 1L << bit;
+        } else {
+            stones[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    /**
+     * Copies the stones of another bitboard for the same board.
+     */
+    void copyFrom(HexBitboard other) {
+        System.arraycopy(other.blue, 0, blue, 0, words);
+        System.arraycopy(other.red, 0, red, 0, words);
+    }
+
+    /**
+     * Finds the group of a colour that contains a cell.
+     *
+     * Like {@link Board#collectGroup}, the start cell is always part of the result, so starting
+     * from an empty cell gives that cell and every group of the colour next to it.
+     *
+     * @param start The cell to start from.
+     * @param isBlue Indicates which colour the group is.
+     * @return The cell indexes of the group in bit order.
+     */
+    public ArrayList<Integer> collectGroup(int start, boolean isBlue) {
+        ArrayList<Integer> cells = new ArrayList<>();
+        fill(bitOf[start], isBlue ? blue : red);
+        for (int w = 0; w < words; w++) {
+            long bits = group[w];
+            while (bits != 0) {
+                cells.add(cellOf[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                bits &= bits - 1;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Grows the group from one bit until it stops changing, leaving it in {@link #group}.
+     * Only the words the group could have reached so far are touched on each step.
+     */
+    private void fill(int startBit, long[] stones) {
+        Arrays.fill(group, 0);
+        int startWord = startBit >>> 6;
+        long startMask = 1L << startBit;
+        group[startWord] = startMask;
+        int reach = (width >>> 6) + 1;  //Words a single step can move a bit
+        int low = startBit >>> 6;
+        int high = low;
+
+        boolean changed = true;
+        while (changed) {
+            int from = Math.max(0, low - reach);
+            int to = Math.min(words - 1, high + reach);
+            for (int w = from; w <= to; w++) {
+                grown[w] = group[w];
+            }
+            for (int offset : offsets) {
+                orShifted(offset, from, to);
+            }
+
+            changed = false;
+            for (int w = from; w <= to; w++) {
+                long next = grown[w] & (w == startWord ? stones[w] | startMask : stones[w]);
+                if (next != group[w]) {
+                    group[w] = next;
+                    changed = true;
+                    low = Math.min(low, w);
+                    high = Math.max(high, w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ors {@link #group} moved by offset bits into {@link #grown}, for words from..to.
+     */
+    private void orShifted(int offset, int from, int to) {
+        int wordShift = offset >> 6;   //Rounds towards minus infinity, so bitShift is always 0..63
+        int bitShift = offset & 63;
+        for (int w = from; w <= to; w++) {
+            int source = w - wordShift;
+            long low = source >= 0 && source < words ? group[source] : 0;
+            long value = low << bitShift;
+            if (bitShift != 0) {
+                int below = source - 1;
+                long carry = below >= 0 && below < words ? group[below] : 0;
+                value |= carry >>> (64 - bitShift);
+            }
+            grown[w] |= value;
+        }
+    }
+}
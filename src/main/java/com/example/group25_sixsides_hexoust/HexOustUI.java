@@ -1,6 +1,7 @@
 package com.example.group25_sixsides_hexoust;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.input.MouseEvent;
@@ -9,12 +10,14 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Polygon;
 import javafx.stage.Stage;
 import javafx.scene.shape.Circle;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.text.Font;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 // main class to run the game. Sets up the board and handles user interaction.
 public class HexOustUI extends Application {
@@ -28,6 +31,11 @@ public class HexOustUI extends Application {
     private ArrayList<HexCube> cubeCoordinates = new ArrayList<>();
     private Map<Polygon, HexCube> polygonToCubeMap = new HashMap<>();
 
+    // analyze mode: playouts run on worker threads and the results are drawn as a heatmap
+    private static final long ANALYSIS_UPDATE_MILLIS = 100;  // at most ten heatmap redraws a second
+    private CheckBox analyzeBox;
+    private Label analysisLabel;
+    private MoveAnalyzer analyzer;
 
     @Override
     public void start(Stage primaryStage) {
@@ -39,14 +47,16 @@ public class HexOustUI extends Application {
         layout = new Layout(Layout.flat, new Point(size, size), new Point(originX, originY));
 
         int baseN = 6;
-        ArrayList<ArrayList<Point>> grid = generateHexGrid(layout, baseN);
+        BoardTopology topology = BoardTopology.standard(baseN);
+        ArrayList<ArrayList<Point>> grid = generateHexGrid(layout, topology);
 
-        controller = new Controller(cubeCoordinates);
+        controller = new Controller(topology, Rules.STANDARD);
         controller.getBoard().setBoardUpdateListener(this::repaintBoard);
 
         pane = new Pane();
         drawHexGrid(grid);
         createAndAddLabel(pane);
+        createAndAddAnalyzeBox(pane);
         createAndAddDot(Color.RED, pane);
 
         Scene scene = new Scene(pane, 800, 800);
@@ -55,6 +65,76 @@ public class HexOustUI extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        stopAnalysis();
+    }
+
+    // creates the check box that turns analyze mode on and off, and the label that shows its progress
+    private void createAndAddAnalyzeBox(Pane pane) {
+        analyzeBox = new CheckBox("Analyze");
+        analyzeBox.setFont(new Font("Times new roman", 16));
+        analyzeBox.setLayoutX(100);
+        analyzeBox.setLayoutY(105);
+        analyzeBox.selectedProperty().addListener((observable, wasSelected, selected) -> {
+            stopAnalysis();
+            if (selected) startAnalysis();
+        });
+
+        analysisLabel = new Label();
+        analysisLabel.setFont(new Font("Times new roman", 14));
+        analysisLabel.setLayoutX(100);
+        analysisLabel.setLayoutY(130);
+        pane.getChildren().addAll(analyzeBox, analysisLabel);
+    }
+
+    // starts analysing the current position, if the game is still going
+    private void startAnalysis() {
+        if (controller.isGameOver()) return;
+        MoveAnalyzer started = new MoveAnalyzer(controller);
+        analyzer = started;
+        // the analyzer sends updates at a fixed rate, and only one is ever waiting for the FX thread,
+        // so a busy FX thread skips to the newest result instead of falling behind. Each analyzer
+        // has its own slot, so a late update from a cancelled one cannot push out a newer one's result
+        AtomicReference<MoveAnalyzer.Result> pending = new AtomicReference<>();
+        started.start(Runtime.getRuntime().availableProcessors(), System.nanoTime(), ANALYSIS_UPDATE_MILLIS, result -> {
+            if (pending.getAndSet(result) == null) {
+                Platform.runLater(() -> {
+                    MoveAnalyzer.Result latest = pending.getAndSet(null);
+                    if (analyzer == started && latest != null) {
+                        drawHeatmap(latest);
+                    }
+                });
+            }
+        });
+    }
+
+    // cancels the running analysis and clears the heatmap
+    private void stopAnalysis() {
+        if (analyzer == null) return;
+        analyzer.cancel();
+        analyzer = null;
+        analysisLabel.setText("");
+        repaintBoard();
+    }
+
+    // colours each legal move from red (the player to move usually loses) to green (usually wins)
+    private void drawHeatmap(MoveAnalyzer.Result result) {
+        BoardTopology topology = controller.getBoard().getTopology();
+        for (Map.Entry<Polygon, HexCube> entry : polygonToCubeMap.entrySet()) {
+            int cubeIndex = topology.indexOf(entry.getValue());
+            if (cubeIndex == BoardTopology.NO_CELL) continue;
+            double winRate = result.getWinRate(cubeIndex);
+            if (!Double.isNaN(winRate)) {
+                entry.getKey().setFill(Color.hsb(120 * winRate, 0.8, 1.0, 0.6));
+            }
+        }
+        int best = result.getBestCell();
+        String bestText = best < 0 ? "" : String.format(", best %s %.0f%%",
+                controller.getBoard().getCubeCoordinates().get(best), 100 * result.getWinRate(best));
+        analysisLabel.setText(result.getTotalPlayouts() + " playouts" + bestText);
+    }
+
     // creating the dot
     private void createAndAddDot(Color dotColor, Pane pane) {
         dot = new Circle(15, dotColor);
@@ -91,19 +171,18 @@ public class HexOustUI extends Application {
         }
     }
 
-    // creates a label when an invalid move is mode
-    public void InvalidMoveMessage(Pane pane) {
-        if (invalidMessage != null) {
-            return;
+    // creates a label when an invalid move is mode, saying why the move was rejected
+    public void InvalidMoveMessage(Pane pane, int result) {
+        if (invalidMessage == null) {
+            Color dark_red = Color.rgb(204, 0, 0);
+            invalidMessage = new Label();
+            invalidMessage.setTextFill(dark_red);
+            invalidMessage.setFont(new Font("Times new roman", 18));
+            invalidMessage.setLayoutX(520);
+            invalidMessage.setLayoutY(705);
+            pane.getChildren().add(invalidMessage);
         }
-        Color dark_red = Color.rgb(204, 0, 0);
-        invalidMessage = new Label();
-        invalidMessage.setText("INVALID MOVE!\nMake another move");
-        invalidMessage.setTextFill(dark_red);
-        invalidMessage.setFont(new Font("Times new roman", 18));
-        invalidMessage.setLayoutX(600);
-        invalidMessage.setLayoutY(725);
-        pane.getChildren().add(invalidMessage);
+        invalidMessage.setText("INVALID MOVE!\n" + MoveResult.describe(result));
     }
 
     // removes everything from the screen and add a label for when a player has won the game
@@ -117,17 +196,14 @@ public class HexOustUI extends Application {
         pane.getChildren().add(winLabel);
     }
 
-    private ArrayList<ArrayList<Point>> generateHexGrid(Layout layout, int baseN) {
+    // the hexes come from the board's topology, so the polygons share the board's own HexCube objects
+    private ArrayList<ArrayList<Point>> generateHexGrid(Layout layout, BoardTopology topology) {
         ArrayList<ArrayList<Point>> grid = new ArrayList<>();
-        for (int q = -baseN; q <= baseN; q++) {
-            for (int r = Math.max(-baseN, -q - baseN); r <= Math.min(baseN, -q + baseN); r++) {
-                int s = -q - r;
-                HexCube h = new HexCube(q, r, s);
-                cubeCoordinates.add(h);
-
-                ArrayList<Point> corners = layout.polygonCorners(h);
-                grid.add(corners);
-            }
+        for (HexCube h : topology.getCells()) {
+            cubeCoordinates.add(h);
+
+            ArrayList<Point> corners = layout.polygonCorners(h);
+            grid.add(corners);
         }
         return grid;
     }
@@ -164,13 +240,16 @@ public class HexOustUI extends Application {
             return;
         }
 
+        // the heatmap is for the position before this click
+        stopAnalysis();
+
         Controller.State previousState = controller.getState();
         Color originalColor = (controller.getState() == Controller.State.BLUE_TURN) ? Color.BLUE : Color.RED;
 
-        boolean moveMade = controller.handleMove(move);
+        int result = controller.playMove(move);
 
-        if (!moveMade) {
-            InvalidMoveMessage(pane);
+        if (!MoveResult.isValid(result)) {
+            InvalidMoveMessage(pane, result);
         } else if(invalidMessage != null){
             // removing the invalid move message when a valid move has been made
             pane.getChildren().remove(invalidMessage);
@@ -184,6 +263,9 @@ public class HexOustUI extends Application {
 
         checkForWinner();
 
+        if (analyzeBox.isSelected()) {
+            startAnalysis();
+        }
     }
 
     private void updateHexagonAndDotState(Polygon hexagon, Color originalColor) {
@@ -207,8 +289,8 @@ public class HexOustUI extends Application {
             Polygon polygon = entry.getKey();
             HexCube cube = entry.getValue();
 
-            Integer cubeIndex = controller.getBoard().getCubeToIndexMap().get(cube);
-            if (cubeIndex == null) continue;
+            int cubeIndex = controller.getBoard().getTopology().indexOf(cube);
+            if (cubeIndex == BoardTopology.NO_CELL) continue;
 
             if (controller.getBoard().getHex().getBlueHexagons()[cubeIndex] == 1) {
                 polygon.setFill(Color.BLUE);
@@ -257,11 +339,13 @@ class HexCube
         return new HexCube(q + b.q, r + b.r, s + b.s);
     }
 
-    static public ArrayList<HexCube> directions = new ArrayList<HexCube>(){{add(new HexCube(1, 0, -1)); add(new HexCube(1, -1, 0)); add(new HexCube(0, -1, 1)); add(new HexCube(-1, 0, 1)); add(new HexCube(-1, 1, 0)); add(new HexCube(0, 1, -1));}};
+    // never handed out, so the six directions cannot be changed
+    private static final HexCube[] DIRECTIONS = {new HexCube(1, 0, -1), new HexCube(1, -1, 0), new HexCube(0, -1, 1),
+            new HexCube(-1, 0, 1), new HexCube(-1, 1, 0), new HexCube(0, 1, -1)};
 
     static public HexCube direction(int direction)
     {
-        return HexCube.directions.get(direction);
+        return DIRECTIONS[direction];
     }
 
     public HexCube neighbor(int direction)
@@ -277,9 +361,10 @@ class HexCube
         return q == hexCube.q && r == hexCube.r && s == hexCube.s;
     }
 
+    // s is always -q - r, so q and r packed into one int are enough and never collide on a real board
     @Override
     public int hashCode() {
-        return q * 31 * 31 + r * 31 + s;
+        return (q << 16) | (r & 0xFFFF);
     }
     @Override
     public String toString() {
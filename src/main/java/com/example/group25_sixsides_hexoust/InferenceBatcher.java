@@ -0,0 +1,239 @@
+package com.example.group25_sixsides_hexoust;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * The InferenceBatcher class gathers positions to score from many games running on their own
+ * threads and hands them to an {@link InferenceModel} in batches, so the cost of each model call
+ * is shared by the whole batch.
+ *
+ * A caller submits a position, which is encoded at once into the next free slot of the batch
+ * being filled, and later waits for its value. A single inference thread runs a batch when it is
+ * full, or when its oldest position has waited maxWaitNanos, so a few slow games never hold the
+ * others up for long. Batch buffers are direct and are reused once every value has been read.
+ */
+public class InferenceBatcher implements AutoCloseable {
+
+    /**
+     * A submitted position, to pass to {@link #await(Pending)}.
+     */
+    public static final class Pending {
+        private final Batch batch;
+        private final int slot;
+
+        private Pending(Batch batch, int slot) {
+            this.batch = batch;
+            this.slot = slot;
+        }
+    }
+
+    private static final class Batch {
+        final FloatBuffer input;
+        final FloatBuffer output;
+        int claimed;   //Slots handed out
+        int written;   //Slots whose position has been encoded
+        int read;      //Slots whose value has been taken
+        boolean done;
+        RuntimeException failure;
+
+        Batch(FloatBuffer input, FloatBuffer output) {
+            this.input = input;
+            this.output = output;
+        }
+    }
+
+    private final InferenceModel model;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final ThreadLocal<FeatureEncoder> encoders;
+    private final FeatureEncoder allocator;
+    private final Thread worker;
+
+    // guarded by this
+    private final ArrayDeque<Batch> spare = new ArrayDeque<>();
+    private Batch filling;
+    private long fillingSince;  //When the first position of the filling batch was claimed
+    private boolean closed;
+    private long batchCount;
+    private long positionCount;
+
+    /**
+     * @param topology The board the positions are played on.
+     * @param model The model to score positions with.
+     * @param maxBatch The most positions in one model call.
+     * @param maxWaitNanos The longest a position waits for its batch to fill up.
+     */
+    public InferenceBatcher(BoardTopology topology, InferenceModel model, int maxBatch, long maxWaitNanos) {
+        this.allocator = new FeatureEncoder(topology);
+        if (model.getInputSize() != allocator.getInputSize()) {
+            throw new IllegalArgumentException("Model reads " + model.getInputSize() + " floats but positions are "
+                    + allocator.getInputSize());
+        }
+        this.model = model;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWaitNanos;
+        this.encoders = ThreadLocal.withInitial(() -> new FeatureEncoder(topology));
+        this.filling = newBatch();
+        this.worker = new Thread(this::runBatches, "inference-batcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Encodes a position into the batch being filled. The board may be changed as soon as this returns.
+     *
+     * @param board The position to score.
+     * @param blueToMove Indicates if Blue is the player to move.
+     * @return A ticket for the value.
+     */
+    public Pending submit(Board board, boolean blueToMove) throws InterruptedException {
+        Batch batch;
+        int slot;
+        synchronized (this) {
+            while (!closed && filling.claimed == maxBatch) {
+                wait();
+            }
+            if (closed) throw new IllegalStateException("Batcher is closed");
+            batch = filling;
+            slot = batch.claimed++;
+            if (slot == 0) fillingSince = System.nanoTime();
+        }
+        encoders.get().encode(board, blueToMove, batch.input, slot);
+        synchronized (this) {
+            batch.written++;
+            notifyAll();
+        }
+        return new Pending(batch, slot);
+    }
+
+    /**
+     * Waits for the value of a submitted position. Each ticket must be awaited exactly once.
+     *
+     * @param pending The ticket from {@link #submit}.
+     * @return The value for the player to move, from -1 to 1.
+     */
+    public synchronized float await(Pending pending) throws InterruptedException {
+        Batch batch = pending.batch;
+        while (!batch.done) {
+            wait();
+        }
+        RuntimeException failure = batch.failure;
+        float value = batch.output.get(pending.slot);
+        if (++batch.read == batch.claimed) {
+            batch.claimed = batch.written = batch.read = 0;
+            batch.done = false;
+            batch.failure = null;
+            spare.push(batch);
+        }
+        if (failure != null) throw new IllegalStateException("Inference failed", failure);
+        return value;
+    }
+
+    /**
+     * Scores one position, waiting for it to go through in a batch with other callers' positions.
+     */
+    public float evaluate(Board board, boolean blueToMove) throws InterruptedException {
+        return await(submit(board, blueToMove));
+    }
+
+    /**
+     * @return The number of model calls made so far.
+     */
+    public synchronized long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * @return The number of positions scored so far.
+     */
+    public synchronized long getPositionCount() {
+        return positionCount;
+    }
+
+    /**
+     * Scores what has been submitted and stops the inference thread. Later submits fail.
+     * If the caller is interrupted while waiting, it still waits and the interrupt is kept for later.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        joinUninterruptibly(worker);
+    }
+
+    /**
+     * Waits for a thread to end, putting back the caller's interrupt if one came in the meantime.
+     */
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * The inference thread: takes each batch once it is ready and runs the model on it.
+     */
+    private void runBatches() {
+        try {
+            while (true) {
+                Batch batch;
+                synchronized (this) {
+                    while (!isReady(filling)) {
+                        if (closed && filling.claimed == 0) return;
+                        long waited = System.nanoTime() - fillingSince;
+                        if (filling.claimed > 0 && filling.written == filling.claimed && waited < maxWaitNanos) {
+                            long remaining = maxWaitNanos - waited;
+                            wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                        } else {
+                            wait();
+                        }
+                    }
+                    batch = filling;
+                    filling = spare.isEmpty() ? newBatch() : spare.pop();
+                    notifyAll();  //Callers waiting for a free slot can go on
+                }
+
+                RuntimeException failure = null;
+                try {
+                    model.evaluate(batch.input, batch.claimed, batch.output);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+
+                synchronized (this) {
+                    batch.failure = failure;
+                    batch.done = true;
+                    batchCount++;
+                    positionCount += batch.claimed;
+                    notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return true if every claimed slot is written and the batch is full, has waited long enough, or the batcher is closing.
+     */
+    private boolean isReady(Batch batch) {
+        return batch.claimed > 0 && batch.written == batch.claimed
+                && (batch.claimed == maxBatch || closed || System.nanoTime() - fillingSince >= maxWaitNanos);
+    }
+
+    private Batch newBatch() {
+        FloatBuffer output = ByteBuffer.allocateDirect(maxBatch * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        return new Batch(allocator.allocate(maxBatch), output);
+    }
+}
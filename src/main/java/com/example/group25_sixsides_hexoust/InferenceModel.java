@@ -0,0 +1,27 @@
+package com.example.group25_sixsides_hexoust;
+import java.nio.FloatBuffer;
+
+/**
+ * The InferenceModel interface is a learned evaluator that scores whole batches of positions
+ * on the CPU. Positions come in as the planes written by {@link FeatureEncoder}, so a model
+ * can be swapped for another, for example one backed by a native library, without touching
+ * the search.
+ */
+public interface InferenceModel {
+
+    /**
+     * @return The number of floats the model reads for one position.
+     */
+    int getInputSize();
+
+    /**
+     * Scores a batch of positions. Implementations use absolute gets and puts, so the
+     * buffers' positions and limits are ignored and left alone.
+     *
+     * @param input The encoded positions, {@link #getInputSize()} floats each.
+     * @param count The number of positions to score.
+     * @param output Where to write one value per position: from -1 if the player to move
+     *               is sure to lose to 1 if they are sure to win.
+     */
+    void evaluate(FloatBuffer input, int count, FloatBuffer output);
+}
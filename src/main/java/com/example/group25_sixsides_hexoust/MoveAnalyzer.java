@@ -0,0 +1,217 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The MoveAnalyzer class estimates how good each legal move of a position is by playing
+ * random games from it on worker threads. It keeps going until cancelled, so the estimates
+ * get better the longer it runs, and hands a snapshot of them to a listener at a fixed rate.
+ * It works on its own copy of the position, so the game it was made from can carry on.
+ */
+public class MoveAnalyzer {
+
+    /**
+     * Receives snapshots of the analysis. It is called on the analyzer's own thread.
+     */
+    public interface Listener {
+        void onUpdate(Result result);
+    }
+
+    /**
+     * The estimates at one moment, for the player to move in the analyzed position.
+     */
+    public static final class Result {
+        private final double[] winRates;
+        private final int[] playouts;
+        private final long totalPlayouts;
+
+        Result(double[] winRates, int[] playouts, long totalPlayouts) {
+            this.winRates = winRates;
+            this.playouts = playouts;
+            this.totalPlayouts = totalPlayouts;
+        }
+
+        /**
+         * @param cell A cell index.
+         * @return The share of playouts after this move that the player won, from 0 to 1,
+         *         or NaN if the move is not legal or has not been tried yet.
+         */
+        public double getWinRate(int cell) {
+            return winRates[cell];
+        }
+
+        /**
+         * @param cell A cell index.
+         * @return The number of playouts started with this move.
+         */
+        public int getPlayouts(int cell) {
+            return playouts[cell];
+        }
+
+        /**
+         * @return The number of playouts over all moves.
+         */
+        public long getTotalPlayouts() {
+            return totalPlayouts;
+        }
+
+        /**
+         * @return The cell with the best win rate, or -1 if no move has been tried.
+         */
+        public int getBestCell() {
+            int best = -1;
+            for (int cell = 0; cell < winRates.length; cell++) {
+                if (!Double.isNaN(winRates[cell]) && (best < 0 || winRates[cell] > winRates[best])) {
+                    best = cell;
+                }
+            }
+            return best;
+        }
+    }
+
+    //Playouts still going after this many moves per hex are scored as half a win
+    private static final int MAX_PLIES_PER_CELL = 10;
+
+    private final Controller root;
+    private final List<HexCube> cells;
+    private final int[] moves;                  //Cell indexes of the legal moves
+    private final AtomicLongArray tallies;      //Playouts in the high half, score in the low half: two per win, one per unfinished playout
+    private final LongAdder totalPlayouts = new LongAdder();
+    private volatile boolean cancelled;
+    private ExecutorService workers;
+    private ScheduledExecutorService publisher;
+
+    /**
+     * @param position The game to analyze. It is copied, so it may change once this returns.
+     */
+    public MoveAnalyzer(Controller position) {
+        root = new Controller(position);
+        cells = root.getBoard().getCubeCoordinates();
+        ArrayList<Integer> legal = new ArrayList<>();
+        if (!root.isGameOver()) {
+            for (int cell = 0; cell < cells.size(); cell++) {
+                if (MoveResult.isValid(root.checkMove(cells.get(cell)))) {
+                    legal.add(cell);
+                }
+            }
+        }
+        moves = legal.stream().mapToInt(Integer::intValue).toArray();
+        tallies = new AtomicLongArray(cells.size());
+    }
+
+    /**
+     * Starts the worker threads and the listener updates. Call at most once.
+     *
+     * @param threads The number of worker threads.
+     * @param seed The seed for the random playouts.
+     * @param intervalMillis The time between listener updates.
+     * @param listener Receives the snapshots.
+     */
+    public synchronized void start(int threads, long seed, long intervalMillis, Listener listener) {
+        if (workers != null) throw new IllegalStateException("Already started");
+        workers = Executors.newFixedThreadPool(threads, daemon("move-analyzer"));
+        for (int worker = 0; worker < threads; worker++) {
+            int w = worker;
+            workers.execute(() -> work(w, threads, seed));
+        }
+        publisher = Executors.newSingleThreadScheduledExecutor(daemon("move-analyzer-updates"));
+        publisher.scheduleAtFixedRate(() -> {
+            if (!cancelled) listener.onUpdate(snapshot());
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the analysis. Playouts in progress finish on their own but are not counted.
+     * An update that was already being delivered may still arrive, so listeners that
+     * swap analyzers should check which one an update came from.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        if (workers != null) {
+            workers.shutdownNow();
+            publisher.shutdownNow();
+        }
+    }
+
+    /**
+     * @return true once {@link #cancel()} has been called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return The number of legal moves being analyzed.
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * @return The estimates so far.
+     */
+    public Result snapshot() {
+        double[] winRates = new double[cells.size()];
+        int[] counts = new int[cells.size()];
+        Arrays.fill(winRates, Double.NaN);
+        for (int cell : moves) {
+            //Count and score are read together, so a playout is never seen without its score
+            long tally = tallies.get(cell);
+            counts[cell] = (int) (tally >>> 32);
+            if (counts[cell] > 0) {
+                winRates[cell] = (int) tally / (2.0 * counts[cell]);
+            }
+        }
+        return new Result(winRates, counts, totalPlayouts.sum());
+    }
+
+    /**
+     * Plays the legal moves in turn, each followed by a random game, until cancelled.
+     * Workers start at different moves so all of them get playouts early on.
+     */
+    private void work(int worker, int threads, long seed) {
+        if (moves.length == 0) return;
+        Bot bot = new RandomBot(new Random(seed * 1_000_003L + worker));
+        Controller game = new Controller(root);
+        boolean blueToMove = root.isBlueTurn();
+        int maxPlies = cells.size() * MAX_PLIES_PER_CELL;
+        for (long i = worker; !cancelled; i += threads) {
+            int cell = moves[(int) (i % moves.length)];
+            game.copyFrom(root);
+            game.playMove(cells.get(cell));
+            HexCube move;
+            for (int plies = 0; !game.isGameOver() && plies < maxPlies && (move = bot.chooseMove(game)) != null; plies++) {
+                game.playMove(move);
+            }
+            if (cancelled) return;
+            tallies.addAndGet(cell, (1L << 32) + score(game.getState(), blueToMove));
+            totalPlayouts.increment();
+        }
+    }
+
+    /**
+     * @return 2 if the player won, 0 if they lost, 1 if the game did not finish.
+     */
+    private static int score(Controller.State state, boolean blueToMove) {
+        if (state == Controller.State.BLUE_WON) return blueToMove ? 2 : 0;
+        if (state == Controller.State.RED_WON) return blueToMove ? 0 : 2;
+        return 1;
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
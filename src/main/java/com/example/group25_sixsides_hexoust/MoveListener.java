@@ -0,0 +1,19 @@
+package com.example.group25_sixsides_hexoust;
+
+/**
+ * Listener told about each move a {@link Controller} plays, with what the move changed, so an
+ * observer can follow the game without rescanning the board the way a {@link BoardUpdateListener} must.
+ * It is called on the thread that played the move, after the board and state are updated.
+ */
+public interface MoveListener {
+
+    /**
+     * @param game The game the move was played in, already showing the new state.
+     * @param cell The index of the cell the stone was placed on.
+     * @param isBlue Indicates if Blue played the move.
+     * @param captured The indexes of the opponent cells the move emptied. The array is reused by
+     *                 the board, so it must be copied to be kept.
+     * @param capturedCount The number of entries of captured that belong to this move.
+     */
+    void onMove(Controller game, int cell, boolean isBlue, int[] captured, int capturedCount);
+}
@@ -0,0 +1,100 @@
+package com.example.group25_sixsides_hexoust;
+
+/**
+ * The MoveResult class describes the outcome of a move as a single int code.
+ * The low bits are flags for the outcome or the rejection reason, and the high bits
+ * hold the number of cells captured by the move. Because the result is a plain int,
+ * checking a move never allocates, and callers can test several reasons at once
+ * with a mask such as {@link #REJECTED}.
+ */
+public final class MoveResult {
+
+    /** The move was played. */
+    public static final int VALID = 1;
+    /** The move was played and captured at least one opponent group. */
+    public static final int CAPTURE = 1 << 1;
+    /** The hex is not part of the board. */
+    public static final int OFF_BOARD = 1 << 2;
+    /** The hex already has a stone on it. */
+    public static final int OCCUPIED = 1 << 3;
+    /** A non-capturing move may not touch the player's own stones. */
+    public static final int TOUCHES_OWN = 1 << 4;
+    /** The move touches no opponent group, so it cannot capture. */
+    public static final int NO_OPPONENT = 1 << 5;
+    /** An adjacent opponent group is not smaller than the player's group. */
+    public static final int GROUP_TOO_SMALL = 1 << 6;
+
+    /** Every rejection reason. */
+    public static final int REJECTED = OFF_BOARD | OCCUPIED | TOUCHES_OWN | NO_OPPONENT | GROUP_TOO_SMALL;
+    /** Reasons that depend only on the hex itself and not on its neighbours. */
+    public static final int CELL_UNAVAILABLE = OFF_BOARD | OCCUPIED;
+
+    private static final int FLAG_MASK = 0xFF;
+    private static final int COUNT_SHIFT = 8;
+
+    private MoveResult() {
+    }
+
+    /**
+     * @param capturedCells The number of opponent cells removed by the move.
+     * @return The code for a played capturing move.
+     */
+    public static int captured(int capturedCells) {
+        return VALID | CAPTURE | (capturedCells << COUNT_SHIFT);
+    }
+
+    /**
+     * @param code A move result code.
+     * @return true if the move was played.
+     */
+    public static boolean isValid(int code) {
+        return (code & VALID) != 0;
+    }
+
+    /**
+     * @param code A move result code.
+     * @return true if the move was played and captured something.
+     */
+    public static boolean isCapture(int code) {
+        return (code & CAPTURE) != 0;
+    }
+
+    /**
+     * @param code A move result code.
+     * @param mask One or more flags.
+     * @return true if any of the flags in the mask are set.
+     */
+    public static boolean has(int code, int mask) {
+        return (code & mask) != 0;
+    }
+
+    /**
+     * @param code A move result code.
+     * @return The flag bits without the capture count.
+     */
+    public static int flags(int code) {
+        return code & FLAG_MASK;
+    }
+
+    /**
+     * @param code A move result code.
+     * @return The number of opponent cells captured by the move.
+     */
+    public static int capturedCount(int code) {
+        return code >>> COUNT_SHIFT;
+    }
+
+    /**
+     * @param code A move result code.
+     * @return A short message for the player explaining the result.
+     */
+    public static String describe(int code) {
+        if (has(code, OFF_BOARD)) return "That hex is not on the board";
+        if (has(code, OCCUPIED)) return "That hex is already taken";
+        if (has(code, GROUP_TOO_SMALL)) return "Your group must be larger\nthan the group you capture";
+        if (has(code, TOUCHES_OWN)) return "You cannot place next to\nyour own stone without capturing";
+        if (has(code, NO_OPPONENT)) return "There is nothing to capture";
+        if (isCapture(code)) return "Captured " + capturedCount(code) + " hexes";
+        return "Valid move";
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The NetworkBot class picks the legal move whose resulting position a learned evaluator likes best.
+ * It looks one move ahead: every legal move is played on a scratch copy of the game and the
+ * position after it is submitted to a shared {@link InferenceBatcher}, and only then are the values
+ * collected. A game therefore fills part of a batch on its own, and many games on their own
+ * threads fill whole batches between them.
+ *
+ * A bot keeps a scratch game, so each game being played needs its own bot; the batcher is shared.
+ * If the thread is interrupted while the bot waits for the batcher, the bot throws a
+ * {@link CancellationException} and keeps the interrupt, since null would mean there is no legal move.
+ */
+public class NetworkBot implements Bot {
+
+    private final InferenceBatcher batcher;
+    private Controller scratch;
+    private InferenceBatcher.Pending[] pending = new InferenceBatcher.Pending[0];
+    private int[] candidates = new int[0];
+    private boolean[] sameMover = new boolean[0];  //A capture lets the same player move again
+
+    /**
+     * @param batcher The batcher to score positions with, for the board the bot will play on.
+     */
+    public NetworkBot(InferenceBatcher batcher) {
+        this.batcher = batcher;
+    }
+
+    @Override
+    public HexCube chooseMove(Controller controller) {
+        List<HexCube> cells = controller.getBoard().getCubeCoordinates();
+        if (scratch == null || scratch.getBoard().getTopology() != controller.getBoard().getTopology()) {
+            scratch = new Controller(controller);
+            pending = new InferenceBatcher.Pending[cells.size()];
+            candidates = new int[cells.size()];
+            sameMover = new boolean[cells.size()];
+        }
+
+        int count = 0;
+        try {
+            //Submit every move's position before waiting for any of them
+            boolean changed = true;  //A rejected move leaves the scratch game as it was
+            for (int cell = 0; cell < cells.size(); cell++) {
+                HexCube move = cells.get(cell);
+                if (changed) scratch.copyFrom(controller);
+                changed = MoveResult.isValid(scratch.playMove(move));
+                if (!changed) continue;
+                if (scratch.isGameOver()) {
+                    return move;  //A winning move needs no evaluation
+                }
+                pending[count] = batcher.submit(scratch.getBoard(), scratch.isBlueTurn());
+                sameMover[count] = scratch.isBlueTurn() == controller.isBlueTurn();
+                candidates[count++] = cell;
+            }
+
+            int best = -1;
+            float bestValue = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                //The value is for whoever moves next, usually the opponent
+                float value = batcher.await(pending[i]);
+                if (!sameMover[i]) value = -value;
+                pending[i] = null;
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = candidates[i];
+                }
+            }
+            return best < 0 ? null : cells.get(best);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while choosing a move");
+        } finally {
+            drain(count);
+        }
+    }
+
+    /**
+     * Awaits positions that were submitted but whose values are no longer needed, so their batch
+     * can be reused. Every ticket must be awaited, so it waits through an interrupt and keeps it for later.
+     */
+    private void drain(int count) {
+        boolean interrupted = false;
+        for (int i = 0; i < count; i++) {
+            while (pending[i] != null) {
+                try {
+                    batcher.await(pending[i]);
+                    pending[i] = null;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (IllegalStateException e) {
+                    pending[i] = null;  //The batch failed, but the ticket was still taken
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
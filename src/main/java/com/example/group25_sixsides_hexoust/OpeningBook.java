@@ -0,0 +1,130 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The OpeningBook class answers opening moves from a file written by {@link OpeningBookBuilder}.
+ * The file is memory mapped and searched in place, so a lookup costs one position hash and a
+ * binary search, with no parsing or searching of the game tree.
+ *
+ * File layout, big-endian: MAGIC, cell count, entry count, then for each entry the position key (long),
+ * the canonical move, its visits and its wins (ints). Entries are sorted by key, most visited move first.
+ *
+ * One book can be shared by every bot thread. The mapped file is only read, with absolute reads,
+ * and each thread hashes positions with its own {@link PositionKey}, so lookups take no lock.
+ */
+public class OpeningBook {
+
+    static final int MAGIC = 0x48584F42;  //"HXOB"
+    private static final int HEADER_BYTES = 12;
+    private static final int ENTRY_BYTES = 20;
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+    private final ThreadLocal<PositionKey> positionKey;  //A key remembers its last symmetry, so one per thread
+    private final int maxStones;
+
+    private OpeningBook(ByteBuffer entries, int entryCount, BoardTopology topology, int maxStones) {
+        this.entries = entries;
+        this.entryCount = entryCount;
+        this.positionKey = ThreadLocal.withInitial(() -> new PositionKey(topology));
+        this.maxStones = maxStones;
+    }
+
+    /**
+     * Maps a book file into memory.
+     *
+     * @param file The book file.
+     * @param topology The board the book was built for.
+     * @param maxStones Stop using the book once this many stones are on the board,
+     *                  which should be no more than the depth the book was built with.
+     * @return The opened book.
+     * @throws IOException If the file cannot be read or was built for another board.
+     */
+    public static OpeningBook open(Path file, BoardTopology topology, int maxStones) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not an opening book");
+            }
+            if (buffer.getInt(4) != topology.getCellCount()) {
+                throw new IOException(file + " was built for a board with " + buffer.getInt(4) + " cells");
+            }
+            int entryCount = buffer.getInt(8);
+            if (buffer.capacity() < HEADER_BYTES + (long) entryCount * ENTRY_BYTES) {
+                throw new IOException(file + " is truncated");
+            }
+            return new OpeningBook(buffer.duplicate(), entryCount, topology, maxStones);
+        }
+    }
+
+    /**
+     * @return The number of move entries in the book.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Looks up the most played move for the current player. Safe to call from any thread.
+     *
+     * @param controller The game to look up.
+     * @return The cell index of the book move, or -1 if the position is not in the book.
+     */
+    public int lookup(Controller controller) {
+        Board board = controller.getBoard();
+        if (board.getStoneCount(true) + board.getStoneCount(false) >= maxStones) return -1;
+
+        PositionKey keys = positionKey.get();
+        long key = keys.key(board.getHex().getBlueHexagons(), board.getHex().getRedHexagons(),
+                controller.isBlueTurn());
+        int entry = firstEntry(key);
+        if (entry < 0) return -1;
+        return keys.fromCanonical(entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + 8));
+    }
+
+    /**
+     * Binary search for the first entry with the key.
+     */
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries.getLong(HEADER_BYTES + middle * ENTRY_BYTES) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low < entryCount && entries.getLong(HEADER_BYTES + low * ENTRY_BYTES) == key) {
+            return low;
+        }
+        return -1;
+    }
+
+    /**
+     * Wraps a bot so it plays book moves while the game is in the book.
+     *
+     * @param fallback The bot to use once the position is not in the book.
+     * @return The book bot.
+     */
+    public Bot bot(Bot fallback) {
+        return controller -> {
+            int cell = lookup(controller);
+            if (cell >= 0) {
+                List<HexCube> cells = controller.getBoard().getCubeCoordinates();
+                HexCube move = cells.get(cell);
+                if (MoveResult.isValid(controller.checkMove(move))) {
+                    return move;
+                }
+            }
+            return fallback.chooseMove(controller);
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The OpeningBookBuilder class collects move statistics from finished games and writes
+ * them to an opening book file that {@link OpeningBook} can look up.
+ * Positions are stored by their canonical {@link PositionKey}, so games that reach the same
+ * position by a rotation or reflection add to the same entry.
+ */
+public class OpeningBookBuilder {
+
+    private final ArrayList<HexCube> cells;
+    private final PositionKey positionKey;
+    private final int depth;
+    private final int minVisits;
+    private final Map<Long, Map<Integer, int[]>> stats = new HashMap<>();  //key -> canonical move -> {visits, wins}
+
+    /**
+     * @param cells The hexes of the board the games were played on.
+     * @param depth The number of opening moves of each game to record.
+     * @param minVisits The fewest times a move must be seen to be written to the book.
+     */
+    public OpeningBookBuilder(ArrayList<HexCube> cells, int depth, int minVisits) {
+        this.cells = cells;
+        this.positionKey = new PositionKey(BoardTopology.of(cells));
+        this.depth = depth;
+        this.minVisits = minVisits;
+    }
+
+    /**
+     * Replays the opening of a game and counts each move, and whether the player who made it went on to win.
+     *
+     * @param game A game played on this builder's board.
+     */
+    public void addGame(SelfPlay.Game game) {
+        Controller controller = new Controller(cells);
+        Board board = controller.getBoard();
+        int[] moves = game.getMoves();
+        for (int ply = 0; ply < Math.min(depth, moves.length) && !controller.isGameOver(); ply++) {
+            boolean blueToMove = controller.isBlueTurn();
+            long key = positionKey.key(board.getHex().getBlueHexagons(), board.getHex().getRedHexagons(), blueToMove);
+            int canonicalMove = positionKey.toCanonical(moves[ply]);
+
+            int[] counts = stats.computeIfAbsent(key, k -> new HashMap<>())
+                    .computeIfAbsent(canonicalMove, m -> new int[2]);
+            counts[0]++;
+            if (game.getResult() == (blueToMove ? Controller.State.BLUE_WON : Controller.State.RED_WON)) {
+                counts[1]++;
+            }
+
+            if (!controller.handleMove(cells.get(moves[ply]))) break;
+        }
+    }
+
+    /**
+     * Writes the book. The file is a header followed by fixed size entries sorted by position key,
+     * so a lookup is a binary search over the mapped file.
+     *
+     * @param file The file to write.
+     * @return The number of entries written.
+     */
+    public int write(Path file) throws IOException {
+        long[] keys = new long[stats.size()];
+        int k = 0;
+        for (long key : stats.keySet()) {
+            keys[k++] = key;
+        }
+        Arrays.sort(keys);
+
+        ArrayList<int[]> entries = new ArrayList<>();  //{index into keys, move, visits, wins}
+        for (int i = 0; i < keys.length; i++) {
+            for (Map.Entry<Integer, int[]> move : stats.get(keys[i]).entrySet()) {
+                if (move.getValue()[0] >= minVisits) {
+                    entries.add(new int[]{i, move.getKey(), move.getValue()[0], move.getValue()[1]});
+                }
+            }
+        }
+        //Within one position the most played move comes first, ties go to the lower cell
+        entries.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0])
+                : a[2] != b[2] ? Integer.compare(b[2], a[2]) : Integer.compare(a[1], b[1]));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(cells.size());
+            out.writeInt(entries.size());
+            for (int[] entry : entries) {
+                out.writeLong(keys[entry[0]]);
+                out.writeInt(entry[1]);
+                out.writeInt(entry[2]);
+                out.writeInt(entry[3]);
+            }
+        }
+        return entries.size();
+    }
+
+    /**
+     * Builds a book for the standard base 6 board.
+     * Usage: OpeningBookBuilder &lt;out&gt; &lt;games file | selfplay:COUNT&gt; [depth] [minVisits]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookBuilder <out> <games file | selfplay:COUNT> [depth] [minVisits]");
+            System.exit(2);
+        }
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int minVisits = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        ArrayList<HexCube> cells = BoardTopology.hexagon(6);
+        OpeningBookBuilder builder = new OpeningBookBuilder(cells, depth, minVisits);
+
+        int games = 0;
+        if (args[1].startsWith("selfplay:")) {
+            int count = Integer.parseInt(args[1].substring("selfplay:".length()));
+            Random random = new Random(count);
+            Bot bot = new RandomBot(random);
+            for (; games < count; games++) {
+                builder.addGame(SelfPlay.play(cells, bot, bot, 10_000));
+            }
+        } else {
+            try (BufferedReader in = Files.newBufferedReader(Paths.get(args[1]))) {
+                for (SelfPlay.Game game : SelfPlay.read(in)) {
+                    builder.addGame(game);
+                    games++;
+                }
+            }
+        }
+        int entries = builder.write(Paths.get(args[0]));
+        System.out.println("Read " + games + " games, wrote " + entries + " book entries to " + args[0]);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * The PositionKey class turns a position into a 64 bit key that is the same for every
+ * rotation and reflection of the position. It hashes each stone with fixed random numbers
+ * (Zobrist hashing) once per board symmetry and keeps the smallest hash, so the same key
+ * is found by the opening book builder and by the bots that look positions up.
+ * It remembers the symmetry of the last key it made, so each thread needs its own instance.
+ */
+final class PositionKey {
+
+    private static final long SEED = 0x4865784F757374L;  //Keys must match between builder and lookup
+
+    private final int cellCount;
+    private final int[][] symmetries;  //For each symmetry, the cell each cell is moved to
+    private final int[][] inverses;    //For each symmetry, the cell each cell came from
+    private final long[] blueKeys;
+    private final long[] redKeys;
+    private final long blueToMoveKey;
+
+    // working values from the last call to key()
+    private int lastSymmetry;
+
+    /**
+     * @param topology The board whose positions will be hashed.
+     */
+    PositionKey(BoardTopology topology) {
+        cellCount = topology.getCellCount();
+
+        Random random = new Random(SEED ^ cellCount);
+        blueKeys = new long[cellCount];
+        redKeys = new long[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            blueKeys[i] = random.nextLong();
+            redKeys[i] = random.nextLong();
+        }
+        blueToMoveKey = random.nextLong();
+
+        //Try the six rotations with and without a reflection, keeping those that map the board onto itself
+        ArrayList<int[]> found = new ArrayList<>();
+        HashMap<Long, Integer> indexOf = new HashMap<>();
+        for (int i = 0; i < cellCount; i++) {
+            indexOf.put(pack(topology.getQ(i), topology.getR(i)), i);
+        }
+        for (int reflect = 0; reflect < 2; reflect++) {
+            for (int turns = 0; turns < 6; turns++) {
+                int[] map = new int[cellCount];
+                boolean fits = true;
+                for (int i = 0; i < cellCount && fits; i++) {
+                    int q = topology.getQ(i);
+                    int r = topology.getR(i);
+                    int s = -q - r;
+                    if (reflect == 1) {  //(q, r, s) -> (q, s, r)
+                        int t = r;
+                        r = s;
+                        s = t;
+                    }
+                    for (int k = 0; k < turns; k++) {  //(q, r, s) -> (-r, -s, -q)
+                        int t = q;
+                        q = -r;
+                        r = -s;
+                        s = -t;
+                    }
+                    Integer target = indexOf.get(pack(q, r));
+                    if (target == null) {
+                        fits = false;
+                    } else {
+                        map[i] = target;
+                    }
+                }
+                if (fits) found.add(map);
+            }
+        }
+        symmetries = found.toArray(new int[0][]);
+        inverses = new int[symmetries.length][cellCount];
+        for (int k = 0; k < symmetries.length; k++) {
+            for (int i = 0; i < cellCount; i++) {
+                inverses[k][symmetries[k][i]] = i;
+            }
+        }
+    }
+
+    private static long pack(int q, int r) {
+        return ((long) q << 32) | (r & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return The number of symmetries of the board, 12 for a hexagon.
+     */
+    int symmetryCount() {
+        return symmetries.length;
+    }
+
+    /**
+     * Hashes a position under every symmetry and returns the smallest hash.
+     * The symmetry that produced it is remembered for {@link #toCanonical} and {@link #fromCanonical}.
+     *
+     * @param blue The blue stones by cell index, 1 for a stone.
+     * @param red The red stones by cell index, 1 for a stone.
+     * @param blueToMove Indicates if Blue moves next.
+     * @return The canonical key.
+     */
+    long key(int[] blue, int[] red, boolean blueToMove) {
+        long best = 0;
+        for (int k = 0; k < symmetries.length; k++) {
+            int[] map = symmetries[k];
+            long hash = blueToMove ? blueToMoveKey : 0;
+            for (int i = 0; i < cellCount; i++) {
+                if (blue[i] == 1) hash ^= blueKeys[map[i]];
+                if (red[i] == 1) hash ^= redKeys[map[i]];
+            }
+            if (k == 0 || Long.compareUnsigned(hash, best) < 0) {
+                best = hash;
+                lastSymmetry = k;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param cell A cell of the position last passed to {@link #key}.
+     * @return The same cell in the canonical position.
+     */
+    int toCanonical(int cell) {
+        return symmetries[lastSymmetry][cell];
+    }
+
+    /**
+     * @param cell A cell of the canonical position.
+     * @return The same cell in the position last passed to {@link #key}.
+     */
+    int fromCanonical(int cell) {
+        return inverses[lastSymmetry][cell];
+    }
+}
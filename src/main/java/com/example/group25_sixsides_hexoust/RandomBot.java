@@ -0,0 +1,56 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The RandomBot class picks a random legal move. It is used for self-play and playouts.
+ */
+public class RandomBot implements Bot {
+
+    private final Random random;
+
+    /**
+     * @param random The random source, seeded by the caller for repeatable games.
+     */
+    public RandomBot(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Tries hexes from a random starting point and step until one is legal,
+     * so no list of candidates has to be built or shuffled.
+     */
+    @Override
+    public HexCube chooseMove(Controller controller) {
+        List<HexCube> cells = controller.getBoard().getCubeCoordinates();
+        int n = cells.size();
+        int start = random.nextInt(n);
+        int step = coprimeStep(n);
+        for (int i = 0, cell = start; i < n; i++, cell = (cell + step) % n) {
+            HexCube move = cells.get(cell);
+            if (MoveResult.isValid(controller.checkMove(move))) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return A random step that visits every index once when taken n times.
+     */
+    private int coprimeStep(int n) {
+        while (true) {
+            int step = 1 + random.nextInt(n);
+            if (gcd(step, n) == 1) return step;
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
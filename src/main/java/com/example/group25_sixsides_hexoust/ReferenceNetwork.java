@@ -0,0 +1,89 @@
+package com.example.group25_sixsides_hexoust;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+/**
+ * The ReferenceNetwork class is a small fully connected network written in plain Java:
+ * one hidden layer with ReLU, then a single tanh output. It is slow next to a real inference
+ * library, but it has no dependencies and gives exact, repeatable values, so it is used to test
+ * the encoder, the batcher and the bots, and to check the output of other models against.
+ */
+public final class ReferenceNetwork implements InferenceModel {
+
+    private final int inputSize;
+    private final int hiddenSize;
+    private final float[] hiddenWeights;  //hiddenSize rows of inputSize weights
+    private final float[] hiddenBias;
+    private final float[] outputWeights;
+    private final float outputBias;
+
+    /**
+     * Makes a network with random weights, scaled so the output is not saturated.
+     *
+     * @param inputSize The number of floats per position.
+     * @param hiddenSize The number of hidden units.
+     * @param seed The seed for the weights.
+     */
+    public ReferenceNetwork(int inputSize, int hiddenSize, long seed) {
+        this(inputSize, hiddenSize, randomWeights(inputSize * hiddenSize, 1 / Math.sqrt(inputSize), seed),
+                new float[hiddenSize], randomWeights(hiddenSize, 1 / Math.sqrt(hiddenSize), seed + 1), 0);
+    }
+
+    /**
+     * Makes a network from trained weights.
+     *
+     * @param inputSize The number of floats per position.
+     * @param hiddenSize The number of hidden units.
+     * @param hiddenWeights The hidden layer weights, one row of inputSize weights per hidden unit.
+     * @param hiddenBias The hidden layer biases.
+     * @param outputWeights The weight of each hidden unit in the output.
+     * @param outputBias The output bias.
+     */
+    public ReferenceNetwork(int inputSize, int hiddenSize, float[] hiddenWeights, float[] hiddenBias,
+                            float[] outputWeights, float outputBias) {
+        if (hiddenWeights.length != inputSize * hiddenSize || hiddenBias.length != hiddenSize
+                || outputWeights.length != hiddenSize) {
+            throw new IllegalArgumentException("Weights do not match a " + inputSize + " by " + hiddenSize + " network");
+        }
+        this.inputSize = inputSize;
+        this.hiddenSize = hiddenSize;
+        this.hiddenWeights = hiddenWeights;
+        this.hiddenBias = hiddenBias;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    @Override
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    @Override
+    public void evaluate(FloatBuffer input, int count, FloatBuffer output) {
+        float[] x = new float[inputSize];
+        for (int position = 0; position < count; position++) {
+            input.get(position * inputSize, x);
+            float sum = outputBias;
+            for (int unit = 0; unit < hiddenSize; unit++) {
+                float activation = hiddenBias[unit];
+                int row = unit * inputSize;
+                for (int i = 0; i < inputSize; i++) {
+                    activation += hiddenWeights[row + i] * x[i];
+                }
+                if (activation > 0) {
+                    sum += outputWeights[unit] * activation;
+                }
+            }
+            output.put(position, (float) Math.tanh(sum));
+        }
+    }
+
+    private static float[] randomWeights(int count, double scale, long seed) {
+        Random random = new Random(seed);
+        float[] weights = new float[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = (float) (random.nextGaussian() * scale);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.ArrayList;
+
+/**
+ * The Rules interface holds the parts of the HexOust rules that variants change:
+ * when a stone may be placed without capturing, when a group may capture, and the board shape.
+ * Board calls it on every move through an interface typed field. A process that only plays one
+ * variant leaves each call site with a single receiver class, which the JIT can then inline,
+ * but nothing guarantees it; {@link RulesBenchmark} runs each variant in its own JVM for that reason.
+ */
+public interface Rules {
+
+    /** The normal HexOust rules on a hexagon board. */
+    Rules STANDARD = new Standard();
+
+    /**
+     * @param touchesOwn Indicates if the hex is next to one of the player's stones.
+     * @return true if a non-capturing stone may go on the hex.
+     */
+    boolean canPlace(boolean touchesOwn);
+
+    /**
+     * @param groupSize The size of the player's group including the new stone.
+     * @param opponentSize The size of an opponent group touching it.
+     * @return true if the player's group may capture that opponent group.
+     */
+    boolean canCapture(int groupSize, int opponentSize);
+
+    /**
+     * @param size The size of the board, the base of a hexagon board.
+     * @return The hexes of a board of that size.
+     */
+    default ArrayList<HexCube> createBoard(int size) {
+        return BoardTopology.hexagon(size);
+    }
+
+    /**
+     * Standard rules: a non-capturing move may not touch your own stones,
+     * and a group captures only strictly smaller groups.
+     */
+    final class Standard implements Rules {
+        @Override
+        public boolean canPlace(boolean touchesOwn) {
+            return !touchesOwn;
+        }
+
+        @Override
+        public boolean canCapture(int groupSize, int opponentSize) {
+            return groupSize > opponentSize;
+        }
+
+        @Override
+        public String toString() {
+            return "standard";
+        }
+    }
+
+    /**
+     * Captures need the player's group to be at least margin stones larger.
+     * A margin of 1 is the standard rule, 0 lets equal groups capture each other.
+     */
+    final class CaptureMargin implements Rules {
+        private final int margin;
+
+        /**
+         * @param margin How many stones larger the capturing group must be.
+         */
+        public CaptureMargin(int margin) {
+            this.margin = margin;
+        }
+
+        @Override
+        public boolean canPlace(boolean touchesOwn) {
+            return !touchesOwn;
+        }
+
+        @Override
+        public boolean canCapture(int groupSize, int opponentSize) {
+            return groupSize - opponentSize >= margin;
+        }
+
+        @Override
+        public String toString() {
+            return "margin-" + margin;
+        }
+    }
+
+    /**
+     * Stones may be placed next to your own without capturing, so groups can be built up freely.
+     */
+    final class FreePlacement implements Rules {
+        @Override
+        public boolean canPlace(boolean touchesOwn) {
+            return true;
+        }
+
+        @Override
+        public boolean canCapture(int groupSize, int opponentSize) {
+            return groupSize > opponentSize;
+        }
+
+        @Override
+        public String toString() {
+            return "free-placement";
+        }
+    }
+
+    /**
+     * Standard rules on a rhombus shaped board, size hexes along each side.
+     */
+    final class Rhombus implements Rules {
+        @Override
+        public boolean canPlace(boolean touchesOwn) {
+            return !touchesOwn;
+        }
+
+        @Override
+        public boolean canCapture(int groupSize, int opponentSize) {
+            return groupSize > opponentSize;
+        }
+
+        @Override
+        public ArrayList<HexCube> createBoard(int size) {
+            ArrayList<HexCube> cells = new ArrayList<>();
+            for (int q = 0; q < size; q++) {
+                for (int r = 0; r < size; r++) {
+                    cells.add(new HexCube(q, r, -q - r));
+                }
+            }
+            return cells;
+        }
+
+        @Override
+        public String toString() {
+            return "rhombus";
+        }
+    }
+
+    /**
+     * @param name A variant name as printed by toString, such as "margin-0".
+     * @return The rules with that name.
+     */
+    static Rules named(String name) {
+        if (name.equals("standard")) return STANDARD;
+        if (name.equals("free-placement")) return new FreePlacement();
+        if (name.equals("rhombus")) return new Rhombus();
+        if (name.startsWith("margin-")) return new CaptureMargin(Integer.parseInt(name.substring("margin-".length())));
+        throw new IllegalArgumentException("Unknown rules: " + name);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The RulesBenchmark class measures random self-play throughput for each rules variant.
+ * Each variant runs in its own JVM, so the JIT's profile of the Rules calls only ever holds
+ * one class and the numbers show each variant the way a game that plays only it would run.
+ *
+ * Usage: RulesBenchmark [--size N] [--seconds S] [variant ...]
+ * Variants are named as in {@link Rules#named}; with none, every built-in variant is measured.
+ */
+public class RulesBenchmark {
+
+    private static final String[] ALL_VARIANTS = {"standard", "margin-0", "margin-2", "free-placement", "rhombus"};
+    private static final int MAX_PLIES = 10_000;
+
+    public static void main(String[] args) throws IOException, InterruptedException, URISyntaxException {
+        int size = 6;
+        double seconds = 5;
+        ArrayList<String> variants = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--size")) {
+                size = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--seconds")) {
+                seconds = Double.parseDouble(args[++i]);
+            } else {
+                variants.add(args[i]);
+            }
+        }
+
+        if (variants.size() == 1) {
+            run(Rules.named(variants.get(0)), size, seconds);
+            return;
+        }
+        if (variants.isEmpty()) {
+            variants.addAll(Arrays.asList(ALL_VARIANTS));
+        }
+        for (String variant : variants) {
+            List<String> command = childCommand();
+            command.addAll(List.of("--size", String.valueOf(size), "--seconds", String.valueOf(seconds), variant));
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            process.waitFor();
+        }
+    }
+
+    /**
+     * @return The command that starts this class in a new JVM the way this one was started,
+     *         from the module path when run as a module and from the class path otherwise.
+     */
+    private static List<String> childCommand() throws URISyntaxException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        Module module = RulesBenchmark.class.getModule();
+        String modulePath = System.getProperty("jdk.module.path");
+        if (module.isNamed() && modulePath != null) {
+            command.addAll(List.of("-p", modulePath, "-m", module.getName() + "/" + RulesBenchmark.class.getName()));
+            return command;
+        }
+        String classPath = System.getProperty("java.class.path");
+        if (classPath == null || classPath.isEmpty()) {
+            //Started some other way, so use wherever this class was loaded from
+            classPath = Path.of(RulesBenchmark.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        }
+        command.addAll(List.of("-cp", classPath, RulesBenchmark.class.getName()));
+        return command;
+    }
+
+    /**
+     * Plays random games for a warm up period and then for the measured period, and prints the rates.
+     */
+    private static void run(Rules rules, int size, double seconds) {
+        ArrayList<HexCube> cells = rules.createBoard(size);
+        Bot bot = new RandomBot(new Random(size));
+
+        playFor(cells, rules, bot, seconds / 2);  //Warm up
+        long[] totals = playFor(cells, rules, bot, seconds);
+
+        double elapsed = totals[2] / 1e9;
+        System.out.printf("%-15s %5d cells  %10.1f games/s  %12.0f moves/s  %6.1f moves/game%n",
+                rules, cells.size(), totals[0] / elapsed, totals[1] / elapsed, (double) totals[1] / Math.max(1, totals[0]));
+    }
+
+    /**
+     * @return {games, moves, nanoseconds} played in roughly the given time.
+     */
+    private static long[] playFor(ArrayList<HexCube> cells, Rules rules, Bot bot, double seconds) {
+        long start = System.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        long games = 0;
+        long moves = 0;
+        long now;
+        do {
+            moves += SelfPlay.play(cells, rules, bot, bot, MAX_PLIES).getMoves().length;
+            games++;
+            now = System.nanoTime();
+        } while (now < end);
+        return new long[]{games, moves, now - start};
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The SelfPlay class plays whole games between two bots without any window,
+ * and reads and writes the games as one line of text each.
+ */
+public final class SelfPlay {
+
+    private SelfPlay() {
+    }
+
+    /**
+     * A finished game: the cell index of every move played, in order, and the final state.
+     * A final state of BLUE_TURN or RED_TURN means the game stopped without a winner.
+     */
+    public static final class Game {
+        private final int[] moves;
+        private final Controller.State result;
+
+        /**
+         * @param moves The cell index of every move played, in order.
+         * @param result The state the game ended in.
+         */
+        public Game(int[] moves, Controller.State result) {
+            this.moves = moves;
+            this.result = result;
+        }
+
+        /**
+         * @return The cell indexes of the moves, which callers must not modify.
+         */
+        public int[] getMoves() {
+            return moves;
+        }
+
+        /**
+         * @return The state the game ended in.
+         */
+        public Controller.State getResult() {
+            return result;
+        }
+
+        /**
+         * @return The game as "RESULT move move ...".
+         */
+        @Override
+        public String toString() {
+            StringBuilder line = new StringBuilder(result.name());
+            for (int move : moves) {
+                line.append(' ').append(move);
+            }
+            return line.toString();
+        }
+
+        /**
+         * @param line A line written by {@link #toString()}.
+         * @return The game on that line.
+         */
+        public static Game parse(String line) {
+            String[] parts = line.trim().split("\\s+");
+            int[] moves = new int[parts.length - 1];
+            for (int i = 1; i < parts.length; i++) {
+                moves[i - 1] = Integer.parseInt(parts[i]);
+            }
+            return new Game(moves, Controller.State.valueOf(parts[0]));
+        }
+    }
+
+    /**
+     * Plays one game. Red moves first, as in the game window.
+     *
+     * @param cells The hexes of the board.
+     * @param red The bot playing red.
+     * @param blue The bot playing blue.
+     * @param maxPlies The most moves to play before stopping.
+     * @return The game that was played.
+     */
+    public static Game play(ArrayList<HexCube> cells, Bot red, Bot blue, int maxPlies) {
+        return play(cells, Rules.STANDARD, red, blue, maxPlies);
+    }
+
+    /**
+     * Plays one game of a rules variant. Red moves first, as in the game window.
+     *
+     * @param cells The hexes of the board.
+     * @param rules The rules to play by.
+     * @param red The bot playing red.
+     * @param blue The bot playing blue.
+     * @param maxPlies The most moves to play before stopping.
+     * @return The game that was played.
+     */
+    public static Game play(ArrayList<HexCube> cells, Rules rules, Bot red, Bot blue, int maxPlies) {
+        return play(new Controller(cells, rules), red, blue, maxPlies);
+    }
+
+    /**
+     * Plays one game of a rules variant on a board whose topology is already worked out,
+     * so playing many games does not rebuild it each time. Red moves first, as in the game window.
+     *
+     * @param topology The cells of the board and their neighbours.
+     * @param rules The rules to play by.
+     * @param red The bot playing red.
+     * @param blue The bot playing blue.
+     * @param maxPlies The most moves to play before stopping.
+     * @return The game that was played.
+     */
+    public static Game play(BoardTopology topology, Rules rules, Bot red, Bot blue, int maxPlies) {
+        return play(new Controller(topology, rules), red, blue, maxPlies);
+    }
+
+    private static Game play(Controller controller, Bot red, Bot blue, int maxPlies) {
+        Board board = controller.getBoard();
+        int[] moves = new int[Math.min(maxPlies, 64)];
+        int plies = 0;
+        while (plies < maxPlies && !controller.isGameOver()) {
+            HexCube move = (controller.isBlueTurn() ? blue : red).chooseMove(controller);
+            if (move == null || !controller.handleMove(move)) break;
+            if (plies == moves.length) {
+                moves = Arrays.copyOf(moves, Math.min(maxPlies, moves.length * 2));
+            }
+            moves[plies++] = board.getTopology().indexOf(move);
+        }
+        return new Game(Arrays.copyOf(moves, plies), controller.getState());
+    }
+
+    /**
+     * Replays a game's moves on a new board.
+     *
+     * @param cells The hexes of the board.
+     * @param game The game to replay.
+     * @param plies The number of moves to replay.
+     * @return A controller holding the position after those moves.
+     */
+    public static Controller replay(ArrayList<HexCube> cells, Game game, int plies) {
+        Controller controller = new Controller(cells);
+        for (int i = 0; i < plies; i++) {
+            controller.handleMove(cells.get(game.getMoves()[i]));
+        }
+        return controller;
+    }
+
+    /**
+     * @param games The games to write.
+     * @param out Where to write them, one per line.
+     */
+    public static void write(Iterable<Game> games, Writer out) throws IOException {
+        for (Game game : games) {
+            out.write(game.toString());
+            out.write('\n');
+        }
+    }
+
+    /**
+     * @param in Lines written by {@link #write}.
+     * @return The games, skipping blank lines.
+     */
+    public static ArrayList<Game> read(BufferedReader in) throws IOException {
+        ArrayList<Game> games = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!line.isBlank()) {
+                games.add(Game.parse(line));
+            }
+        }
+        return games;
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.group25_sixsides_hexoust;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SpectatorBroadcaster class publishes a game to any number of spectators as it is played.
+ * Each move becomes a {@link SpectatorFrame} delta, and every keyframeInterval moves a keyframe
+ * of the whole board follows, so spectators who join late or miss frames can catch up.
+ *
+ * The thread playing the game only copies the move into a frame and offers it to a bounded
+ * outbox, it never waits. A fan-out thread takes frames from the outbox, keeps its own
+ * {@link SpectatorMirror} of the board and offers each frame to every subscriber's bounded queue.
+ * A subscriber whose queue is full has its queue collapsed to a single keyframe of the board as
+ * it is now, and one that has not even taken that keyframe by the next overflow is dropped.
+ * If the fan-out thread itself falls behind, the outbox is collapsed the same way from the game.
+ */
+public class SpectatorBroadcaster implements MoveListener, AutoCloseable {
+
+    private static final int OUTBOX_CAPACITY = 1024;
+    private static final SpectatorFrame END = SpectatorFrame.keyframe(-1, Controller.State.RED_TURN, new byte[0]);
+
+    /**
+     * One spectator's queue of frames, from {@link #subscribe()}.
+     */
+    public static final class Subscription implements AutoCloseable {
+        private final SpectatorBroadcaster broadcaster;
+        private final ArrayBlockingQueue<SpectatorFrame> queue;
+        private volatile boolean dropped;
+        private volatile long collapseCount;
+        private SpectatorFrame resync;  //The keyframe put in the queue by the last collapse, guarded by the broadcaster
+
+        private Subscription(SpectatorBroadcaster broadcaster, int capacity) {
+            this.broadcaster = broadcaster;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Waits for the next frame.
+         *
+         * @return The frame, or null once the subscription has ended and every frame has been taken.
+         */
+        public SpectatorFrame take() throws InterruptedException {
+            SpectatorFrame frame = queue.take();
+            return unlessEnd(frame);
+        }
+
+        /**
+         * Waits a while for the next frame.
+         *
+         * @return The frame, or null if none came in time or the subscription has ended.
+         */
+        public SpectatorFrame poll(long timeout, TimeUnit unit) throws InterruptedException {
+            SpectatorFrame frame = queue.poll(timeout, unit);
+            return frame == null ? null : unlessEnd(frame);
+        }
+
+        private SpectatorFrame unlessEnd(SpectatorFrame frame) {
+            if (frame != END) return frame;
+            queue.offer(END);  //Leave it for the next call
+            return null;
+        }
+
+        /**
+         * @return true if the broadcaster gave up on this subscriber for falling behind.
+         */
+        public boolean isDropped() {
+            return dropped;
+        }
+
+        /**
+         * @return The number of times the queue was full and was collapsed to a keyframe.
+         */
+        public long getCollapseCount() {
+            return collapseCount;
+        }
+
+        /**
+         * Stops the frames. Frames already queued can still be taken, unless the queue was full.
+         */
+        @Override
+        public void close() {
+            broadcaster.unsubscribe(this);
+        }
+    }
+
+    private final Controller game;
+    private final int keyframeInterval;
+    private final int subscriberCapacity;
+    private final ArrayBlockingQueue<SpectatorFrame> outbox = new ArrayBlockingQueue<>(OUTBOX_CAPACITY);
+    private final Thread worker;
+    private volatile boolean closed;
+    private long seq;  //Game thread only
+
+    // guarded by this
+    private final SpectatorMirror mirror;
+    private final List<Subscription> subscribers = new ArrayList<>();
+
+    /**
+     * Starts broadcasting a game, which it does by becoming the game's move listener.
+     * Moves already on the board are sent in keyframes, and the sequence numbers count from there.
+     * A game has a single move listener, so a game that already has one cannot be broadcast.
+     *
+     * @param game The game to broadcast.
+     * @param keyframeInterval The number of moves between keyframes.
+     * @param subscriberCapacity The most frames queued for one subscriber, at least 2.
+     * @throws IllegalStateException If the game already has a move listener.
+     */
+    public SpectatorBroadcaster(Controller game, int keyframeInterval, int subscriberCapacity) {
+        if (keyframeInterval < 1) throw new IllegalArgumentException("Keyframe interval must be positive");
+        if (subscriberCapacity < 2) throw new IllegalArgumentException("Subscribers must be able to queue two frames");
+        if (game.getMoveListener() != null) throw new IllegalStateException("The game already has a move listener");
+        this.game = game;
+        this.keyframeInterval = keyframeInterval;
+        this.subscriberCapacity = subscriberCapacity;
+        this.mirror = new SpectatorMirror(game.getBoard().getTopology().getCellCount());
+        mirror.apply(SpectatorFrame.keyframe(0, game));
+        this.worker = new Thread(this::runFanOut, "spectator-fan-out");
+        worker.setDaemon(true);
+        worker.start();
+        game.setMoveListener(this);
+    }
+
+    /**
+     * Called on the game's thread for each move. Never blocks.
+     */
+    @Override
+    public void onMove(Controller game, int cell, boolean isBlue, int[] captured, int capturedCount) {
+        if (closed) return;
+        seq++;
+        SpectatorFrame frame = SpectatorFrame.delta(seq, game.getState(), cell, isBlue, Arrays.copyOf(captured, capturedCount));
+        if (!outbox.offer(frame)) {
+            //The fan-out thread is behind, so what it has not sent yet is replaced by the board as it is now
+            outbox.clear();
+            outbox.offer(SpectatorFrame.keyframe(seq, game));
+        }
+    }
+
+    /**
+     * Adds a spectator. Its first frame is a keyframe of the board as the fan-out thread last saw it.
+     *
+     * @return The new subscription.
+     */
+    public synchronized Subscription subscribe() {
+        Subscription subscription = new Subscription(this, subscriberCapacity);
+        if (closed) {
+            subscription.queue.offer(END);
+            return subscription;
+        }
+        subscription.queue.offer(mirror.toKeyframe());
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * @return The number of spectators being sent frames.
+     */
+    public synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Stops watching the game, sends every frame already published and then ends all subscriptions.
+     * Call it from the game's thread, or once no more moves are played. If the caller is interrupted
+     * while waiting for the fan-out thread, it still waits and the interrupt is kept for later.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (game.getMoveListener() == this) game.setMoveListener(null);  //Leave a listener set after us alone
+        worker.interrupt();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                worker.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        synchronized (this) {
+            SpectatorFrame frame;
+            while ((frame = outbox.poll()) != null) {
+                publish(frame);
+            }
+            for (Subscription subscription : subscribers) {
+                end(subscription);
+            }
+            subscribers.clear();
+        }
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        if (subscribers.remove(subscription)) {
+            end(subscription);
+        }
+    }
+
+    /**
+     * The fan-out thread: hands each frame from the outbox to every subscriber.
+     */
+    private void runFanOut() {
+        try {
+            while (true) {
+                SpectatorFrame frame = outbox.take();
+                synchronized (this) {
+                    publish(frame);
+                }
+            }
+        } catch (InterruptedException e) {
+            //Closing, the rest of the outbox is published by close()
+        }
+    }
+
+    /**
+     * Applies a frame to the mirror and offers it to every subscriber, followed by a keyframe when one is due.
+     */
+    private void publish(SpectatorFrame frame) {
+        mirror.apply(frame);
+        offerAll(frame);
+        if (!frame.isKeyframe() && frame.getSeq() % keyframeInterval == 0) {
+            offerAll(mirror.toKeyframe());
+        }
+    }
+
+    private void offerAll(SpectatorFrame frame) {
+        for (int i = subscribers.size() - 1; i >= 0; i--) {
+            Subscription subscription = subscribers.get(i);
+            if (subscription.queue.offer(frame)) continue;
+
+            if (subscription.resync != null && subscription.queue.peek() == subscription.resync) {
+                //Still has not taken the keyframe from the last collapse
+                subscribers.remove(i);
+                subscription.dropped = true;
+                end(subscription);
+                continue;
+            }
+            //The mirror already includes this frame, so its keyframe replaces everything queued
+            subscription.queue.clear();
+            subscription.resync = mirror.toKeyframe();
+            subscription.queue.offer(subscription.resync);
+            subscription.collapseCount++;
+        }
+    }
+
+    /**
+     * Replaces whatever a subscription has queued with the end marker, or adds the marker if there is room.
+     */
+    private void end(Subscription subscription) {
+        if (!subscription.queue.offer(END)) {
+            subscription.queue.clear();
+            subscription.queue.offer(END);
+        }
+    }
+}
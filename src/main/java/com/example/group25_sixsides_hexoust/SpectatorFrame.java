@@ -0,0 +1,211 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The SpectatorFrame class is one message of a spectator broadcast. A delta frame holds what a
+ * single move changed: the cell played, who played it, the cells it captured and the state after
+ * it. A keyframe holds the whole board, so a spectator who joins late or falls behind can start over.
+ *
+ * Frames carry the sequence number of the move they bring the board up to. A delta must be
+ * applied to the board after the previous sequence number, while a keyframe replaces the board
+ * whatever came before it, see {@link SpectatorMirror}. Frames are immutable and may be shared
+ * between threads and subscribers.
+ */
+public final class SpectatorFrame {
+
+    private static final byte DELTA_TYPE = 'D';
+    private static final byte KEYFRAME_TYPE = 'K';
+    private static final Controller.State[] STATES = Controller.State.values();
+
+    private final long seq;
+    private final Controller.State state;
+    private final int cell;           //Delta only
+    private final boolean isBlue;     //Delta only
+    private final int[] captured;     //Delta only
+    private final byte[] cells;       //Keyframe only
+
+    private SpectatorFrame(long seq, Controller.State state, int cell, boolean isBlue, int[] captured, byte[] cells) {
+        this.seq = seq;
+        this.state = state;
+        this.cell = cell;
+        this.isBlue = isBlue;
+        this.captured = captured;
+        this.cells = cells;
+    }
+
+    /**
+     * @param seq The sequence number of the move.
+     * @param state The state after the move.
+     * @param cell The cell the stone was placed on.
+     * @param isBlue Indicates if Blue played the move.
+     * @param captured The cells the move emptied, which the frame keeps.
+     * @return A delta frame.
+     */
+    public static SpectatorFrame delta(long seq, Controller.State state, int cell, boolean isBlue, int[] captured) {
+        return new SpectatorFrame(seq, state, cell, isBlue, captured, null);
+    }
+
+    /**
+     * @param seq The sequence number of the last move on the board.
+     * @param state The state of the game.
+     * @param cells The value of every cell, {@link BatchEvaluator#EMPTY}, {@link BatchEvaluator#BLUE} or
+     *              {@link BatchEvaluator#RED} as in a packed position, which the frame keeps.
+     * @return A keyframe.
+     */
+    public static SpectatorFrame keyframe(long seq, Controller.State state, byte[] cells) {
+        return new SpectatorFrame(seq, state, BoardTopology.NO_CELL, false, null, cells);
+    }
+
+    /**
+     * @param seq The sequence number of the last move on the board.
+     * @param game The game to take the board and state from.
+     * @return A keyframe of the game as it is now.
+     */
+    public static SpectatorFrame keyframe(long seq, Controller game) {
+        Board.Hex hex = game.getBoard().getHex();
+        int[] blue = hex.getBlueHexagons();
+        int[] red = hex.getRedHexagons();
+        byte[] cells = new byte[game.getBoard().getTopology().getCellCount()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (blue[i] * BatchEvaluator.BLUE + red[i] * BatchEvaluator.RED);
+        }
+        return keyframe(seq, game.getState(), cells);
+    }
+
+    /**
+     * @return true for a keyframe, false for a delta.
+     */
+    public boolean isKeyframe() {
+        return cells != null;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Controller.State getState() {
+        return state;
+    }
+
+    /**
+     * @return The cell a delta placed a stone on.
+     */
+    public int getCell() {
+        return cell;
+    }
+
+    /**
+     * @return true if Blue played a delta's move.
+     */
+    public boolean isBlue() {
+        return isBlue;
+    }
+
+    /**
+     * @return The number of cells a delta captured.
+     */
+    public int getCapturedCount() {
+        return captured == null ? 0 : captured.length;
+    }
+
+    /**
+     * @param i An index below {@link #getCapturedCount()}.
+     * @return A cell a delta captured.
+     */
+    public int getCaptured(int i) {
+        return captured[i];
+    }
+
+    /**
+     * @return The number of cells in a keyframe.
+     */
+    public int getCellCount() {
+        return cells == null ? 0 : cells.length;
+    }
+
+    /**
+     * @param i A cell index.
+     * @return The value of a cell in a keyframe.
+     */
+    public byte getCellValue(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Writes the frame. Keyframe cells are packed four to a byte, and deltas only hold what changed.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeByte(isKeyframe() ? KEYFRAME_TYPE : DELTA_TYPE);
+        out.writeLong(seq);
+        out.writeByte(state.ordinal());
+        if (isKeyframe()) {
+            out.writeInt(cells.length);
+            for (int i = 0; i < cells.length; i += 4) {
+                int packed = 0;
+                for (int j = 0; j < 4 && i + j < cells.length; j++) {
+                    packed |= cells[i + j] << (2 * j);
+                }
+                out.writeByte(packed);
+            }
+        } else {
+            out.writeInt(cell);
+            out.writeBoolean(isBlue);
+            out.writeInt(captured.length);
+            for (int index : captured) {
+                out.writeInt(index);
+            }
+        }
+    }
+
+    /**
+     * Reads a frame written by {@link #write}. Nothing read is trusted: a frame whose cells do not
+     * fit the board is refused before anything is allocated for it.
+     *
+     * @param in The stream to read from.
+     * @param cellCount The number of cells on the board, from {@link SpectatorServer#readHeader}.
+     * @throws IOException If the stream fails or does not hold a frame for this board.
+     */
+    public static SpectatorFrame read(DataInputStream in, int cellCount) throws IOException {
+        byte type = in.readByte();
+        if (type != DELTA_TYPE && type != KEYFRAME_TYPE) throw new IOException("Not a spectator frame");
+        long seq = in.readLong();
+        int stateIndex = in.readUnsignedByte();
+        if (stateIndex >= STATES.length) throw new IOException("Unknown state " + stateIndex);
+        Controller.State state = STATES[stateIndex];
+        if (type == KEYFRAME_TYPE) {
+            int length = in.readInt();
+            if (length != cellCount) throw new IOException("Keyframe has " + length + " cells, board has " + cellCount);
+            byte[] cells = new byte[length];
+            for (int i = 0; i < cells.length; i += 4) {
+                int packed = in.readUnsignedByte();
+                for (int j = 0; j < 4 && i + j < cells.length; j++) {
+                    cells[i + j] = (byte) ((packed >>> (2 * j)) & 3);
+                    if (cells[i + j] > BatchEvaluator.RED) throw new IOException("Bad value for cell " + (i + j));
+                }
+            }
+            return keyframe(seq, state, cells);
+        }
+        int cell = readCell(in, cellCount);
+        boolean isBlue = in.readBoolean();
+        int capturedCount = in.readInt();
+        if (capturedCount < 0 || capturedCount >= cellCount) throw new IOException("Delta captures " + capturedCount + " cells");
+        int[] captured = new int[capturedCount];
+        for (int i = 0; i < captured.length; i++) {
+            captured[i] = readCell(in, cellCount);
+        }
+        return delta(seq, state, cell, isBlue, captured);
+    }
+
+    private static int readCell(DataInputStream in, int cellCount) throws IOException {
+        int cell = in.readInt();
+        if (cell < 0 || cell >= cellCount) throw new IOException("Cell " + cell + " is not on the board");
+        return cell;
+    }
+
+    @Override
+    public String toString() {
+        return (isKeyframe() ? "keyframe " : "delta ") + seq + " " + state;
+    }
+}
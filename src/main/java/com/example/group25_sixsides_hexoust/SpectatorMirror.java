@@ -0,0 +1,94 @@
+package com.example.group25_sixsides_hexoust;
+
+/**
+ * The SpectatorMirror class rebuilds a game's board from {@link SpectatorFrame}s.
+ * It starts out of sync and gets in sync with the first keyframe. After that every delta must
+ * follow the one before it; a delta that skips a sequence number is refused and the mirror
+ * waits for the next keyframe again.
+ *
+ * A mirror is not thread safe, each spectator keeps its own.
+ */
+public final class SpectatorMirror {
+
+    private final byte[] cells;
+    private long seq = -1;
+    private Controller.State state = Controller.State.RED_TURN;
+    private boolean synced;
+
+    /**
+     * @param cellCount The number of cells on the board being watched.
+     */
+    public SpectatorMirror(int cellCount) {
+        cells = new byte[cellCount];
+    }
+
+    /**
+     * Applies a frame.
+     *
+     * @param frame The next frame received.
+     * @return true if the board now matches the frame, false if the frame was refused.
+     */
+    public boolean apply(SpectatorFrame frame) {
+        if (frame.isKeyframe()) {
+            if (frame.getCellCount() != cells.length) {
+                throw new IllegalArgumentException("Keyframe has " + frame.getCellCount() + " cells, board has " + cells.length);
+            }
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = frame.getCellValue(i);
+            }
+        } else {
+            if (!synced || frame.getSeq() != seq + 1) {
+                synced = false;
+                return false;
+            }
+            for (int i = 0; i < frame.getCapturedCount(); i++) {
+                cells[frame.getCaptured(i)] = BatchEvaluator.EMPTY;
+            }
+            cells[frame.getCell()] = frame.isBlue() ? BatchEvaluator.BLUE : BatchEvaluator.RED;
+        }
+        seq = frame.getSeq();
+        state = frame.getState();
+        synced = true;
+        return true;
+    }
+
+    /**
+     * @return A keyframe of the board as it is now.
+     */
+    public SpectatorFrame toKeyframe() {
+        return SpectatorFrame.keyframe(seq, state, cells.clone());
+    }
+
+    /**
+     * @return true once a keyframe has been applied and no delta has been missed since.
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * @return The sequence number of the last frame applied.
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    public Controller.State getState() {
+        return state;
+    }
+
+    /**
+     * @param cell A cell index.
+     * @return {@link BatchEvaluator#EMPTY}, {@link BatchEvaluator#BLUE} or {@link BatchEvaluator#RED}.
+     */
+    public byte getCell(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * @return The number of cells on the board.
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SpectatorServer class sends a {@link SpectatorBroadcaster}'s frames to spectators in other
+ * processes over TCP. It only listens on the loopback address. Each connection gets its own
+ * subscription and its own writer thread, so a slow socket only holds up itself; it is collapsed
+ * or dropped by the broadcaster like any other slow subscriber, and a dropped one is disconnected.
+ *
+ * A connection starts with a header, see {@link #readHeader}, followed by frames written with
+ * {@link SpectatorFrame#write}, the first of them a keyframe.
+ *
+ * Usage: SpectatorServer [--port P] [--base N] [--delay MS] [--seed S]
+ * plays one random game slowly enough to watch, with port 0 picking a free port.
+ */
+public class SpectatorServer implements AutoCloseable {
+
+    private static final int MAGIC = 0x48585350;  //"HXSP"
+    private static final long CLOSE_WAIT_MILLIS = 1000;
+
+    private static final class Connection {
+        final Socket socket;
+        final SpectatorBroadcaster.Subscription subscription;
+        Thread writer;
+
+        Connection(Socket socket, SpectatorBroadcaster.Subscription subscription) {
+            this.socket = socket;
+            this.subscription = subscription;
+        }
+    }
+
+    private final SpectatorBroadcaster broadcaster;
+    private final int cellCount;
+    private final ServerSocket serverSocket;
+    private final Thread acceptor;
+    private final List<Connection> connections = new ArrayList<>();  //guarded by itself
+
+    /**
+     * Starts listening on the loopback address.
+     *
+     * @param broadcaster The broadcast to serve.
+     * @param cellCount The number of cells on the board being broadcast.
+     * @param port The port to listen on, or 0 for any free port.
+     */
+    public SpectatorServer(SpectatorBroadcaster broadcaster, int cellCount, int port) throws IOException {
+        this.broadcaster = broadcaster;
+        this.cellCount = cellCount;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.acceptor = new Thread(this::acceptClients, "spectator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Reads the header a connection starts with.
+     *
+     * @param in The connection's input.
+     * @return The number of cells on the board, for a {@link SpectatorMirror}.
+     */
+    public static int readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a spectator stream");
+        return in.readInt();
+    }
+
+    /**
+     * Stops accepting spectators and disconnects the ones connected, after giving each a moment
+     * to send the frames it has queued. An interrupt cuts that moment short and is kept for later.
+     * The broadcaster is not closed; close it first so spectators get every frame of the game.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        boolean interrupted = false;
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        List<Connection> open;
+        synchronized (connections) {
+            open = new ArrayList<>(connections);
+        }
+        for (Connection connection : open) {
+            connection.subscription.close();
+        }
+        for (Connection connection : open) {
+            if (!interrupted) {
+                try {
+                    connection.writer.join(CLOSE_WAIT_MILLIS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            connection.socket.close();
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void acceptClients() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                Connection connection = new Connection(socket, broadcaster.subscribe());
+                connection.writer = new Thread(() -> serve(connection), "spectator-client");
+                connection.writer.setDaemon(true);
+                synchronized (connections) {
+                    connections.add(connection);
+                }
+                connection.writer.start();
+            }
+        } catch (IOException e) {
+            //The server socket was closed
+        }
+    }
+
+    /**
+     * Writes one spectator's frames until its subscription ends or the connection fails.
+     */
+    private void serve(Connection connection) {
+        Socket client = connection.socket;
+        try (client; SpectatorBroadcaster.Subscription subscription = connection.subscription) {
+            client.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(client.getOutputStream()));
+            out.writeInt(MAGIC);
+            out.writeInt(cellCount);
+            SpectatorFrame frame;
+            while ((frame = subscription.take()) != null) {
+                frame.write(out);
+                //Send what is queued together, flushing once the queue is empty
+                while ((frame = subscription.poll(0, TimeUnit.MILLISECONDS)) != null) {
+                    frame.write(out);
+                }
+                out.flush();
+                if (subscription.isDropped()) break;
+            }
+        } catch (IOException e) {
+            //The spectator disconnected or the connection broke, either way this spectator is done
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (connections) {
+                connections.remove(connection);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 0;
+        int baseN = 6;
+        long delayMillis = 200;
+        long seed = 25;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--base" -> baseN = Integer.parseInt(args[++i]);
+                case "--delay" -> delayMillis = Long.parseLong(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        BoardTopology topology = BoardTopology.standard(baseN);
+        Controller game = new Controller(topology, Rules.STANDARD);
+        Bot bot = new RandomBot(new Random(seed));
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 20, 64);
+        SpectatorServer server = null;
+        try {
+            server = new SpectatorServer(broadcaster, topology.getCellCount(), port);
+            System.out.println("Broadcasting on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+            HexCube move;
+            while (!game.isGameOver() && (move = bot.chooseMove(game)) != null) {
+                game.handleMove(move);
+                Thread.sleep(delayMillis);
+            }
+            System.out.println("Game over: " + game.getState());
+        } finally {
+            //The broadcaster ends the subscriptions first, so the spectators get the last frames before the server hangs up
+            broadcaster.close();
+            if (server != null) server.close();
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.group25_sixsides_hexoust;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The TournamentRunner class plays bots against each other without any window and rates them.
+ *
+ * Games are played on a pool of threads, one per core by default. Each finished game is passed
+ * through a bounded queue to a single writer thread that appends it to a CSV file, so results
+ * are on disk as soon as they are played. Games are numbered rather than listed up front, and
+ * the ratings only keep totals per pair of bots, so a long run uses no more memory than a short one.
+ *
+ * Usage: TournamentRunner [--swiss ROUNDS] [--games G] [--size N] [--rules NAME] [--threads T]
+ *        [--seed S] [--max-plies P] [--out FILE] bot bot ...
+ * A bot is "random", "book:FILE" for an opening book with random moves after it, or the class
+ * name of a {@link Bot} with a public no argument constructor. Without --swiss every bot plays
+ * every other bot G games; with it, bots on similar scores are paired each round.
+ */
+public class TournamentRunner {
+
+    /**
+     * Makes a new bot for each game, so a bot that keeps state never shares it between threads.
+     */
+    interface Entrant {
+        Bot create(long seed);
+    }
+
+    private static final String CSV_HEADER = "game,round,red,blue,winner,plies,millis";
+    private static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * One finished game, on its way to the writer thread.
+     */
+    private static final class GameRecord {
+        static final GameRecord END = new GameRecord(-1, -1, -1, -1, null, 0, 0);
+
+        final long game;
+        final int round;
+        final int red;
+        final int blue;
+        final Controller.State result;
+        final int plies;
+        final long nanos;
+
+        GameRecord(long game, int round, int red, int blue, Controller.State result, int plies, long nanos) {
+            this.game = game;
+            this.round = round;
+            this.red = red;
+            this.blue = blue;
+            this.result = result;
+            this.plies = plies;
+            this.nanos = nanos;
+        }
+    }
+
+    private final List<String> names;
+    private final List<Entrant> entrants = new ArrayList<>();
+    private final BoardTopology topology;
+    private final Rules rules;
+    private final int threads;
+    private final long seed;
+    private final int maxPlies;
+    private final EloRatings ratings;
+    private long gamesStarted;
+
+    /**
+     * @param bots The bots to play, as described in the class comment.
+     * @param topology The board to play on.
+     * @param rules The rules to play by.
+     * @param threads The number of games to play at once.
+     * @param seed The seed for the bots, so a tournament can be repeated.
+     * @param maxPlies The most moves in a game before it is scored as a draw.
+     * @throws IOException If an opening book cannot be opened.
+     */
+    public TournamentRunner(List<String> bots, BoardTopology topology, Rules rules, int threads, long seed, int maxPlies) throws IOException {
+        if (bots.size() < 2) throw new IllegalArgumentException("A tournament needs at least two bots");
+        this.names = new ArrayList<>(bots);
+        this.topology = topology;
+        this.rules = rules;
+        this.threads = threads;
+        this.seed = seed;
+        this.maxPlies = maxPlies;
+        this.ratings = new EloRatings(bots.size());
+        for (String bot : bots) {
+            entrants.add(entrant(bot, topology));
+        }
+    }
+
+    /**
+     * Plays every bot against every other bot, alternating who plays red.
+     *
+     * @param gamesPerPair The number of games each pair plays.
+     * @param csv Where to write the results, one line per game after a header line.
+     * @return The results so far.
+     */
+    public EloRatings roundRobin(int gamesPerPair, Writer csv) throws IOException, InterruptedException {
+        return run(1, gamesPerPair, false, csv);
+    }
+
+    /**
+     * Plays a Swiss tournament: each round the bots are sorted by score and paired with the
+     * next bot down they have not played yet, so close matches get the most games.
+     *
+     * @param rounds The number of rounds.
+     * @param gamesPerPair The number of games each pairing plays in a round.
+     * @param csv Where to write the results, one line per game after a header line.
+     * @return The results so far.
+     */
+    public EloRatings swiss(int rounds, int gamesPerPair, Writer csv) throws IOException, InterruptedException {
+        return run(rounds, gamesPerPair, true, csv);
+    }
+
+    /**
+     * @return The names of the bots, in the order they are numbered in the ratings.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    private EloRatings run(int rounds, int gamesPerPair, boolean swiss, Writer csv) throws IOException, InterruptedException {
+        csv.write(CSV_HEADER);
+        csv.write('\n');
+        BlockingQueue<GameRecord> finished = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        IOException[] writeFailure = new IOException[1];
+        Thread writer = new Thread(() -> writeResults(finished, csv, writeFailure), "tournament-writer");
+        writer.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                playRound(pool, round, swiss ? swissPairings() : allPairs(), gamesPerPair, finished);
+            }
+        } finally {
+            pool.shutdownNow();
+            finished.put(GameRecord.END);
+            writer.join();
+        }
+        if (writeFailure[0] != null) throw writeFailure[0];
+        return ratings;
+    }
+
+    /**
+     * Plays the games of one round on the pool and waits for them all to finish.
+     */
+    private void playRound(ExecutorService pool, int round, List<int[]> pairings, int gamesPerPair,
+                           BlockingQueue<GameRecord> finished) throws InterruptedException {
+        long games = (long) pairings.size() * gamesPerPair;
+        long firstGame = gamesStarted;
+        AtomicLong next = new AtomicLong();
+        ArrayList<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                long job;
+                while ((job = next.getAndIncrement()) < games) {
+                    int[] pair = pairings.get((int) (job / gamesPerPair));
+                    boolean swap = job % gamesPerPair % 2 == 1;
+                    int red = swap ? pair[1] : pair[0];
+                    int blue = swap ? pair[0] : pair[1];
+                    long game = firstGame + job;
+                    finished.put(play(game, round, red, blue));
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed", e.getCause());
+        }
+        gamesStarted += games;
+    }
+
+    /**
+     * Plays one game and records its result in the ratings.
+     */
+    private GameRecord play(long game, int round, int red, int blue) {
+        long start = System.nanoTime();
+        SelfPlay.Game played = SelfPlay.play(topology, rules,
+                entrants.get(red).create(seed * 1_000_003L + 2 * game),
+                entrants.get(blue).create(seed * 1_000_003L + 2 * game + 1), maxPlies);
+        double redScore = played.getResult() == Controller.State.RED_WON ? 1
+                : played.getResult() == Controller.State.BLUE_WON ? 0 : 0.5;
+        synchronized (ratings) {
+            ratings.add(red, blue, redScore);
+        }
+        return new GameRecord(game, round, red, blue, played.getResult(), played.getMoves().length, System.nanoTime() - start);
+    }
+
+    /**
+     * Writes records until the end marker, flushing whenever it catches up with the players.
+     * After a write fails it keeps taking records so the players are never blocked.
+     */
+    private void writeResults(BlockingQueue<GameRecord> finished, Writer csv, IOException[] failure) {
+        StringBuilder line = new StringBuilder();
+        try {
+            GameRecord record;
+            while ((record = finished.take()) != GameRecord.END) {
+                if (failure[0] != null) continue;
+                line.setLength(0);
+                line.append(record.game).append(',').append(record.round + 1).append(',')
+                        .append(csvField(names.get(record.red))).append(',')
+                        .append(csvField(names.get(record.blue))).append(',')
+                        .append(record.result == Controller.State.RED_WON ? "red"
+                                : record.result == Controller.State.BLUE_WON ? "blue" : "draw").append(',')
+                        .append(record.plies).append(',')
+                        .append(record.nanos / 1_000_000).append('\n');
+                try {
+                    csv.append(line);
+                    if (finished.isEmpty()) csv.flush();
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+            if (failure[0] == null) csv.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            failure[0] = e;
+        }
+    }
+
+    /**
+     * @return Every pair of bots once.
+     */
+    private List<int[]> allPairs() {
+        List<int[]> pairings = new ArrayList<>();
+        for (int a = 0; a < names.size(); a++) {
+            for (int b = a + 1; b < names.size(); b++) {
+                pairings.add(new int[]{a, b});
+            }
+        }
+        return pairings;
+    }
+
+    /**
+     * Pairs bots in score order, each with the highest placed bot below it that it has not
+     * played, or simply the next bot down if it has played them all. With an odd number of
+     * bots the last one left sits the round out.
+     */
+    List<int[]> swissPairings() {
+        Integer[] order = new Integer[names.size()];
+        double[] scores = new double[names.size()];
+        boolean[][] played = new boolean[names.size()][names.size()];
+        synchronized (ratings) {
+            for (int a = 0; a < names.size(); a++) {
+                order[a] = a;
+                scores[a] = ratings.getScore(a);
+                for (int b = 0; b < names.size(); b++) {
+                    played[a][b] = ratings.havePlayed(a, b);
+                }
+            }
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer a) -> -scores[a]).thenComparingInt(a -> a));
+
+        List<int[]> pairings = new ArrayList<>();
+        boolean[] paired = new boolean[names.size()];
+        for (int i = 0; i < order.length; i++) {
+            if (paired[order[i]]) continue;
+            int opponent = -1;
+            for (int j = i + 1; j < order.length; j++) {
+                if (paired[order[j]]) continue;
+                if (opponent < 0) opponent = order[j];
+                if (!played[order[i]][order[j]]) {
+                    opponent = order[j];
+                    break;
+                }
+            }
+            if (opponent < 0) break;
+            paired[order[i]] = true;
+            paired[opponent] = true;
+            pairings.add(new int[]{order[i], opponent});
+        }
+        return pairings;
+    }
+
+    /**
+     * @param spec A bot as described in the class comment.
+     * @param topology The board the bot will play on.
+     * @return An entrant that makes that bot.
+     * @throws IOException If an opening book cannot be opened.
+     */
+    static Entrant entrant(String spec, BoardTopology topology) throws IOException {
+        if (spec.equals("random")) {
+            return seed -> new RandomBot(new Random(seed));
+        }
+        if (spec.startsWith("book:")) {
+            OpeningBook book = OpeningBook.open(Paths.get(spec.substring("book:".length())), topology, topology.getCellCount());
+            return seed -> book.bot(new RandomBot(new Random(seed)));
+        }
+        try {
+            Constructor<? extends Bot> constructor = Class.forName(spec).asSubclass(Bot.class).getConstructor();
+            return seed -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create bot " + spec, e);
+                }
+            };
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Unknown bot: " + spec, e);
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int rounds = 0;
+        int games = 10;
+        int size = 6;
+        Rules rules = Rules.STANDARD;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 25;
+        int maxPlies = 10_000;
+        String out = "tournament.csv";
+        ArrayList<String> bots = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--swiss" -> rounds = Integer.parseInt(args[++i]);
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--size" -> size = Integer.parseInt(args[++i]);
+                case "--rules" -> rules = Rules.named(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--max-plies" -> maxPlies = Integer.parseInt(args[++i]);
+                case "--out" -> out = args[++i];
+                default -> bots.add(args[i]);
+            }
+        }
+
+        BoardTopology topology = rules == Rules.STANDARD ? BoardTopology.standard(size) : BoardTopology.of(rules.createBoard(size));
+        TournamentRunner runner = new TournamentRunner(bots, topology, rules, threads, seed, maxPlies);
+        long start = System.nanoTime();
+        EloRatings results;
+        try (Writer csv = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(Paths.get(out))))) {
+            results = rounds > 0 ? runner.swiss(rounds, games, csv) : runner.roundRobin(games, csv);
+        }
+        System.out.printf("%d games in %.1f s, results in %s%n", runner.gamesStarted, (System.nanoTime() - start) / 1e9, out);
+        printStandings(runner.getNames(), results, System.out);
+    }
+
+    /**
+     * Prints the bots from best to worst rating, with 95% confidence intervals.
+     */
+    static void printStandings(List<String> names, EloRatings results, PrintStream out) {
+        double[] elo = results.ratings();
+        double[] margin = results.confidence(elo);
+        Integer[] order = new Integer[names.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -elo[i]));
+
+        out.printf("%-4s %-30s %8s %8s %8s %8s%n", "Rank", "Bot", "Games", "Score", "Elo", "+/-");
+        for (int rank = 0; rank < order.length; rank++) {
+            int i = order[rank];
+            int played = results.getGames(i);
+            out.printf("%-4d %-30s %8d %7.1f%% %8.0f %8.0f%n", rank + 1, names.get(i), played,
+                    played == 0 ? 0 : 100 * results.getScore(i) / played, elo[i], margin[i]);
+        }
+    }
+}
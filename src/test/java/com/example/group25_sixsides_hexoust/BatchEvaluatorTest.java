@@ -0,0 +1,87 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+class BatchEvaluatorTest {
+    private Board board;
+    private ArrayList<HexCube> test;
+    private BatchEvaluator evaluator;
+
+    @BeforeEach
+    void setup() { //Same small board as BoardTest
+        test = new ArrayList<>();
+        test.add(new HexCube(0, 0, 0));
+        test.add(new HexCube(1, -1, 0));
+        test.add(new HexCube(1, 0, -1));
+        test.add(new HexCube(0, 1, -1));
+        test.add(new HexCube(-1, 1, 0));
+        test.add(new HexCube(-1, 0, 1));
+        test.add(new HexCube(0, -1, 1));
+
+        board = new Board(test);
+        evaluator = new BatchEvaluator(BoardTopology.of(board.getCubeToIndexMap()));
+    }
+
+    @Test
+    void testFeaturesOfSmallPosition() {
+        board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        board.validateForBlue(test.get(0), board.getNeighbors(test.get(0)));
+
+        byte[] positions = new byte[test.size()];
+        evaluator.encode(board, positions, 0);
+        int[] features = evaluator.evaluate(positions, 1);
+
+        assertEquals(1, features[BatchEvaluator.BLUE_STONES]);
+        assertEquals(1, features[BatchEvaluator.RED_GROUPS]);
+        assertEquals(5, features[BatchEvaluator.BLUE_LIBERTIES]); //Every free hex touches blue at the centre
+        assertEquals(2, features[BatchEvaluator.RED_LIBERTIES]);
+        assertEquals(5, features[BatchEvaluator.BLUE_CAPTURES]); //Any free hex joins the blue centre, which touches red
+        assertEquals(2, features[BatchEvaluator.RED_CAPTURES]);  //Only hexes 2 and 6 join red and touch blue
+    }
+
+    @Test
+    void testBatchMatchesBoardCounts() {
+        ArrayList<HexCube> cells = new ArrayList<>();
+        for (int q = -4; q <= 4; q++) {
+            for (int r = Math.max(-4, -q - 4); r <= Math.min(4, -q + 4); r++) {
+                cells.add(new HexCube(q, r, -q - r));
+            }
+        }
+        BatchEvaluator batch = new BatchEvaluator(BoardTopology.of(new Board(cells).getCubeToIndexMap()));
+
+        //Play random games and keep one position per game, then evaluate them all together
+        Random random = new Random(25);
+        int count = 500;
+        byte[] positions = new byte[count * cells.size()];
+        Board[] boards = new Board[count];
+        for (int game = 0; game < count; game++) {
+            Controller controller = new Controller(cells);
+            for (int move = 0; move < 40; move++) {
+                controller.handleMove(cells.get(random.nextInt(cells.size())));
+            }
+            boards[game] = controller.getBoard();
+            batch.encode(boards[game], positions, game);
+        }
+        int[] features = batch.evaluate(positions, count);
+
+        for (int game = 0; game < count; game++) {
+            int[] row = Arrays.copyOfRange(features, game * BatchEvaluator.FEATURE_COUNT, (game + 1) * BatchEvaluator.FEATURE_COUNT);
+            assertEquals(boards[game].getStoneCount(true), row[BatchEvaluator.BLUE_STONES]);
+            assertEquals(boards[game].getStoneCount(false), row[BatchEvaluator.RED_STONES]);
+            assertEquals(boards[game].getGroupCount(true), row[BatchEvaluator.BLUE_GROUPS]);
+            assertEquals(boards[game].getGroupCount(false), row[BatchEvaluator.RED_GROUPS]);
+        }
+    }
+
+    @Test
+    void testCountThatOverflowsIsRejected() {
+        //7 cells times this count wraps around to 3 in int arithmetic
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(new byte[7], 613_566_757));
+        assertThrows(IllegalArgumentException.class, () -> evaluator.evaluate(new byte[7], -1));
+    }
+}
@@ -54,4 +54,74 @@ class BoardTest {
         assertTrue(board.validateCapturingMove(test.get(3), true));
         assertTrue(board.checkWin()); //Red has no hexes, should be true
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTouchingOwnStoneReportsReason() {
+        board.tryNonCapturingMove(test.get(1), board.getNeighbors(test.get(1)), false);
+        int result = board.tryNonCapturingMove(test.get(2), board.getNeighbors(test.get(2)), false);
+        assertEquals(MoveResult.TOUCHES_OWN, result);
+    }
+
+    @Test
+    void testCaptureBlockedByEqualGroup() {
+        board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        assertEquals(MoveResult.GROUP_TOO_SMALL, board.tryCapturingMove(test.get(2), true));
+        assertFalse(board.isHexagonOccupied(test.get(2))); //Rejected capture leaves the hex free
+    }
+
+    @Test
+    void testCaptureReportsCapturedCount() {
+        board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        board.validateForBlue(test.get(0), board.getNeighbors(test.get(0)));
+
+        int result = board.tryCapturingMove(test.get(3), true);
+        assertTrue(MoveResult.isCapture(result));
+        assertEquals(1, MoveResult.capturedCount(result));
+    }
+
+    @Test
+    void testOffBoardMove() {
+        HexCube outside = new HexCube(5, -5, 0);
+        assertEquals(MoveResult.OFF_BOARD, board.tryCapturingMove(outside, true));
+    }
+
+    @Test
+    void testStoneAndGroupCounts() {
+        board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        board.validateForRed(test.get(3), board.getNeighbors(test.get(3)));
+        board.validateForBlue(test.get(0), board.getNeighbors(test.get(0)));
+        assertEquals(2, board.getStoneCount(false));
+        assertEquals(2, board.getGroupCount(false));
+        assertEquals(1, board.getStoneCount(true));
+
+        //Red at 2 joins both red stones into one group and captures blue at 0
+        assertTrue(board.validateCapturingMove(test.get(2), false));
+        assertEquals(3, board.getStoneCount(false));
+        assertEquals(1, board.getGroupCount(false));
+        assertEquals(0, board.getStoneCount(true));
+        assertEquals(0, board.getGroupCount(true));
+        assertTrue(board.checkWin());
+    }
+
+    @Test
+    void testRejectedCaptureKeepsCounts() {
+        board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        board.validateCapturingMove(test.get(2), true);
+        assertEquals(0, board.getStoneCount(true));
+        assertEquals(1, board.getStoneCount(false));
+        assertEquals(1, board.getGroupCount(false));
+    }
+
+    @Test
+    void testCheckMoveLeavesBoardUnchanged() {
+        board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        board.validateForBlue(test.get(0), board.getNeighbors(test.get(0)));
+
+        int result = board.checkMove(test.get(3), true);
+        assertTrue(MoveResult.isCapture(result));
+        assertFalse(board.isHexagonOccupied(test.get(3)));
+        assertTrue(board.isHexagonOccupied(test.get(1))); //Red was not captured
+        assertEquals(1, board.getStoneCount(true));
+        assertEquals(MoveResult.OCCUPIED, board.checkMove(test.get(0), false));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+class BoardTopologyTest {
+
+    private void assertSameTopology(BoardTopology expected, BoardTopology actual) {
+        assertEquals(expected.getCellCount(), actual.getCellCount());
+        for (int cell = 0; cell < expected.getCellCount(); cell++) {
+            assertEquals(expected.getQ(cell), actual.getQ(cell), "q of " + cell);
+            assertEquals(expected.getR(cell), actual.getR(cell), "r of " + cell);
+            for (int direction = 0; direction < 6; direction++) {
+                assertEquals(expected.neighbor(cell, direction), actual.neighbor(cell, direction), "neighbour of " + cell);
+            }
+        }
+    }
+
+    @Test
+    void testWriteThenReadGivesSameTopology() throws IOException {
+        BoardTopology topology = BoardTopology.of(BoardTopology.hexagon(4));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        topology.write(new DataOutputStream(bytes));
+        BoardTopology read = BoardTopology.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertSameTopology(topology, read);
+    }
+
+    @Test
+    void testStandardMatchesComputedBoard() {
+        for (int baseN = 1; baseN <= 12; baseN++) {
+            BoardTopology standard = BoardTopology.standard(baseN);
+            assertSameTopology(BoardTopology.of(BoardTopology.hexagon(baseN)), standard);
+            assertEquals(BoardTopology.hexagon(baseN), standard.getCells());
+        }
+    }
+
+    @Test
+    void testBoardFromTopologyPlaysLikeBoardFromCells() {
+        ArrayList<HexCube> cells = BoardTopology.hexagon(6);
+        Controller fromCells = new Controller(cells, Rules.STANDARD);
+        Controller fromTopology = new Controller(BoardTopology.standard(6), Rules.STANDARD);
+        for (int i = 0; i < cells.size(); i += 7) {
+            assertEquals(fromCells.playMove(cells.get(i)), fromTopology.playMove(cells.get(i)), "move " + i);
+            assertEquals(fromCells.getState(), fromTopology.getState());
+        }
+    }
+
+    @Test
+    void testIndexOfFindsEveryCellAndNothingElse() {
+        ArrayList<HexCube> cells = BoardTopology.hexagon(8);
+        BoardTopology topology = BoardTopology.of(cells);
+        for (int i = 0; i < cells.size(); i++) {
+            HexCube cell = cells.get(i);
+            assertEquals(i, topology.indexOf(new HexCube(cell.q, cell.r, cell.s)));
+            assertSame(cell, topology.intern(new HexCube(cell.q, cell.r, cell.s)));
+            assertSame(cell, topology.getCell(i));
+        }
+        assertEquals(BoardTopology.NO_CELL, topology.indexOf(9, 0));
+        assertEquals(BoardTopology.NO_CELL, topology.indexOf(5, 5));
+        assertNull(topology.intern(new HexCube(-9, 9, 0)));
+        assertEquals(BoardTopology.NO_CELL, topology.indexOf((HexCube) null));
+        assertNull(topology.intern(null));
+    }
+
+    @Test
+    void testNullMoveIsOffTheBoard() {
+        Controller controller = new Controller(BoardTopology.standard(3), Rules.STANDARD);
+        assertEquals(MoveResult.OFF_BOARD, controller.playMove(null));
+        assertEquals(Controller.State.RED_TURN, controller.getState());
+    }
+
+    @Test
+    void testIndexMapIsSharedByBoardsOnOneTopology() {
+        BoardTopology topology = BoardTopology.standard(4);
+        Board first = new Board(topology, Rules.STANDARD);
+        Board second = new Board(topology, Rules.STANDARD);
+        assertSame(first.getCubeToIndexMap(), second.getCubeToIndexMap());
+        assertEquals(topology.getCellCount(), first.getCubeToIndexMap().size());
+        for (int cell = 0; cell < topology.getCellCount(); cell++) {
+            assertEquals(Integer.valueOf(cell), first.getCubeToIndexMap().get(topology.getCell(cell)));
+        }
+    }
+
+    @Test
+    void testNeighborsAreTheBoardsOwnHexes() {
+        BoardTopology topology = BoardTopology.standard(3);
+        Board board = new Board(topology, Rules.STANDARD);
+        for (HexCube neighbor : board.getNeighbors(new HexCube(0, 0, 0))) {
+            assertSame(topology.intern(neighbor), neighbor);
+        }
+        assertEquals(6, board.getNeighbors(new HexCube(1, -1, 0)).size());
+        assertEquals(3, board.getNeighbors(new HexCube(3, 0, -3)).size());
+        //A hex off the board still has the neighbours that are on it
+        assertEquals(2, board.getNeighbors(new HexCube(4, -1, -3)).size());
+    }
+
+    @Test
+    void testHashCodesDoNotCollide() {
+        ArrayList<HexCube> cells = BoardTopology.hexagon(60);
+        HashSet<Integer> hashes = new HashSet<>();
+        for (HexCube cell : cells) {
+            assertTrue(hashes.add(cell.hashCode()), "collision at " + cell);
+        }
+    }
+}
@@ -47,4 +47,75 @@ class ControllerTest {
         assertFalse(ctrl.handleMove(coords.get(3)));
         assertEquals(Controller.State.RED_WON, ctrl.getState());
     }
+
+    @Test
+    void testPlayMoveReportsRejectionReason() {
+        ctrl.playMove(coords.get(0));
+        assertEquals(MoveResult.OCCUPIED, ctrl.playMove(coords.get(0)));
+
+        //Blue at 1 is next to red at 0 but nothing blue, so it is a plain placement
+        assertEquals(MoveResult.VALID, ctrl.playMove(coords.get(1)));
+
+        //Red at 2 joins red at 0 and captures the smaller blue group at 1
+        int capture = ctrl.playMove(coords.get(2));
+        assertTrue(MoveResult.isCapture(capture));
+        assertEquals(1, MoveResult.capturedCount(capture));
+    }
+
+    @Test
+    void testTouchingOwnWithoutCaptureIsRejected() {
+        ArrayList<HexCube> line = new ArrayList<>();
+        for (int q = 0; q < 4; q++) {
+            line.add(new HexCube(q, 0, -q));
+        }
+        Controller lineCtrl = new Controller(line);
+        lineCtrl.handleMove(line.get(0));
+        lineCtrl.handleMove(line.get(3));
+
+        //Red at 1 touches red at 0 and no blue stone, so it can neither capture nor place
+        int result = lineCtrl.playMove(line.get(1));
+        assertTrue(MoveResult.has(result, MoveResult.TOUCHES_OWN));
+        assertTrue(MoveResult.has(result, MoveResult.NO_OPPONENT));
+        assertEquals(Controller.State.RED_TURN, lineCtrl.getState());
+    }
+
+    @Test
+    void testCopyPlaysIndependently() {
+        ctrl.playMove(coords.get(0));
+        Controller copy = new Controller(ctrl);
+        assertEquals(Controller.State.BLUE_TURN, copy.getState());
+        assertTrue(copy.getBoard().isHexagonOccupied(coords.get(0)));
+
+        copy.playMove(coords.get(1));
+        assertFalse(ctrl.getBoard().isHexagonOccupied(coords.get(1)));
+        assertEquals(Controller.State.BLUE_TURN, ctrl.getState());
+
+        copy.copyFrom(ctrl);
+        assertFalse(copy.getBoard().isHexagonOccupied(coords.get(1)));
+        assertEquals(1, copy.getBoard().getStoneCount(false));
+        assertEquals(0, copy.getBoard().getStoneCount(true));
+        assertEquals(1, copy.getBoard().getGroupCount(false));
+    }
+
+    @Test
+    void testMoveListenerGetsWhatChanged() {
+        ArrayList<int[]> moves = new ArrayList<>();
+        ctrl.setMoveListener((game, cell, isBlue, captured, capturedCount) -> {
+            int[] move = new int[capturedCount + 2];
+            move[0] = cell;
+            move[1] = isBlue ? 1 : 0;
+            System.arraycopy(captured, 0, move, 2, capturedCount);
+            moves.add(move);
+        });
+        ctrl.playMove(coords.get(0));
+        ctrl.playMove(coords.get(0));  //Rejected, so not reported
+        ctrl.playMove(coords.get(1));
+        //Red at 2 captures blue at 1
+        ctrl.playMove(coords.get(2));
+
+        assertEquals(3, moves.size());
+        assertArrayEquals(new int[]{0, 0}, moves.get(0));
+        assertArrayEquals(new int[]{1, 1}, moves.get(1));
+        assertArrayEquals(new int[]{2, 0, 1}, moves.get(2));
+    }
 }
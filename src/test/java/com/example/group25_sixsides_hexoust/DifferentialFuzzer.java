@@ -0,0 +1,435 @@
+package com.example.group25_sixsides_hexoust;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Plays random games on a reference engine and a candidate engine in lockstep and reports the
+ * first move where they disagree, shrunk to the shortest move list that still disagrees.
+ * After every move it compares the move result (legality, reason and captured count),
+ * the game state, checkWin, the stone and group counts and every cell.
+ */
+class DifferentialFuzzer {
+
+    /**
+     * One game being played by an engine under test.
+     */
+    interface Engine {
+        /** Plays a cell index for the player to move and returns its {@link MoveResult} code. */
+        int play(int cell);
+
+        Controller.State state();
+
+        boolean checkWin();
+
+        /** 0 for an empty cell, 1 for blue, 2 for red. */
+        int cell(int cell);
+
+        int stoneCount(boolean isBlue);
+
+        int groupCount(boolean isBlue);
+    }
+
+    /**
+     * An engine backed by a Controller, the engine being checked.
+     */
+    static class ControllerEngine implements Engine {
+        final Controller controller;
+        final List<HexCube> cells;
+
+        ControllerEngine(Controller controller) {
+            this.controller = controller;
+            this.cells = controller.getBoard().getCubeCoordinates();
+        }
+
+        @Override
+        public int play(int cell) {
+            return controller.playMove(cells.get(cell));
+        }
+
+        @Override
+        public Controller.State state() {
+            return controller.getState();
+        }
+
+        @Override
+        public boolean checkWin() {
+            return controller.getBoard().checkWin();
+        }
+
+        @Override
+        public int cell(int cell) {
+            Board.Hex hex = controller.getBoard().getHex();
+            return hex.getBlueHexagons()[cell] + 2 * hex.getRedHexagons()[cell];
+        }
+
+        @Override
+        public int stoneCount(boolean isBlue) {
+            return controller.getBoard().getStoneCount(isBlue);
+        }
+
+        @Override
+        public int groupCount(boolean isBlue) {
+            return controller.getBoard().getGroupCount(isBlue);
+        }
+    }
+
+    /**
+     * The reference engine. It shares nothing with Board but the Rules predicates: it keeps only
+     * the colour of each cell, finds neighbours by cube distance, and works out groups, counts and
+     * wins by scanning the whole board every time, the slow way the rules are written down.
+     */
+    static class ScanEngine implements Engine {
+        private final int[] cells;          //0 empty, 1 blue, 2 red
+        private final int[][] neighbors;
+        private final Rules rules;
+        private Controller.State state = Controller.State.RED_TURN;
+
+        ScanEngine(List<HexCube> hexes, Rules rules) {
+            this.cells = new int[hexes.size()];
+            this.neighbors = new int[hexes.size()][];
+            this.rules = rules;
+            for (int i = 0; i < hexes.size(); i++) {
+                ArrayList<Integer> found = new ArrayList<>();
+                for (int j = 0; j < hexes.size(); j++) {
+                    HexCube a = hexes.get(i);
+                    HexCube b = hexes.get(j);
+                    int distance = Math.max(Math.abs(a.q - b.q), Math.max(Math.abs(a.r - b.r), Math.abs(a.s - b.s)));
+                    if (distance == 1) found.add(j);
+                }
+                neighbors[i] = found.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        @Override
+        public int play(int cell) {
+            if (cells[cell] != 0) return MoveResult.OCCUPIED;
+            boolean isBlue = state == Controller.State.BLUE_TURN;
+            int own = isBlue ? 1 : 2;
+            int opponent = 3 - own;
+
+            //Try it as a capture: the new stone's group against every opponent group it touches
+            cells[cell] = own;
+            boolean[] group = group(cell);
+            int groupSize = 0;
+            boolean[] touched = new boolean[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                if (!group[i]) continue;
+                groupSize++;
+                for (int neighbor : neighbors[i]) {
+                    if (cells[neighbor] == opponent && !touched[neighbor]) {
+                        boolean[] opponentGroup = group(neighbor);
+                        for (int k = 0; k < cells.length; k++) touched[k] |= opponentGroup[k];
+                    }
+                }
+            }
+            int captureResult = MoveResult.NO_OPPONENT;
+            int capturedCount = 0;
+            boolean[] counted = new boolean[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                if (!touched[i] || counted[i]) continue;
+                boolean[] opponentGroup = group(i);
+                int size = 0;
+                for (int k = 0; k < cells.length; k++) {
+                    if (opponentGroup[k]) {
+                        counted[k] = true;
+                        size++;
+                    }
+                }
+                capturedCount += size;
+                captureResult = MoveResult.VALID;
+                if (!rules.canCapture(groupSize, size)) {
+                    captureResult = MoveResult.GROUP_TOO_SMALL;
+                    break;
+                }
+            }
+            if (captureResult == MoveResult.VALID) {
+                for (int i = 0; i < cells.length; i++) {
+                    if (touched[i]) cells[i] = 0;
+                }
+                if (checkWin()) state = isBlue ? Controller.State.BLUE_WON : Controller.State.RED_WON;
+                return MoveResult.captured(capturedCount);
+            }
+
+            //Otherwise it is a non-capturing move
+            boolean touchesOwn = false;
+            for (int neighbor : neighbors[cell]) {
+                touchesOwn |= cells[neighbor] == own;
+            }
+            if (!rules.canPlace(touchesOwn)) {
+                cells[cell] = 0;
+                return captureResult | MoveResult.TOUCHES_OWN;
+            }
+            state = isBlue ? Controller.State.RED_TURN : Controller.State.BLUE_TURN;
+            return MoveResult.VALID;
+        }
+
+        /**
+         * @return Which cells are in the group holding this cell, found by a flood fill.
+         */
+        private boolean[] group(int start) {
+            boolean[] in = new boolean[cells.length];
+            ArrayList<Integer> todo = new ArrayList<>();
+            in[start] = true;
+            todo.add(start);
+            while (!todo.isEmpty()) {
+                int cell = todo.remove(todo.size() - 1);
+                for (int neighbor : neighbors[cell]) {
+                    if (!in[neighbor] && cells[neighbor] == cells[start]) {
+                        in[neighbor] = true;
+                        todo.add(neighbor);
+                    }
+                }
+            }
+            return in;
+        }
+
+        @Override
+        public Controller.State state() {
+            return state;
+        }
+
+        @Override
+        public boolean checkWin() {
+            return stoneCount(true) == 0 || stoneCount(false) == 0;
+        }
+
+        @Override
+        public int cell(int cell) {
+            return cells[cell];
+        }
+
+        @Override
+        public int stoneCount(boolean isBlue) {
+            int count = 0;
+            for (int value : cells) {
+                if (value == (isBlue ? 1 : 2)) count++;
+            }
+            return count;
+        }
+
+        @Override
+        public int groupCount(boolean isBlue) {
+            boolean[] seen = new boolean[cells.length];
+            int groups = 0;
+            for (int i = 0; i < cells.length; i++) {
+                if (seen[i] || cells[i] != (isBlue ? 1 : 2)) continue;
+                groups++;
+                boolean[] group = group(i);
+                for (int k = 0; k < cells.length; k++) seen[k] |= group[k];
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * Where two engines first disagreed.
+     */
+    static final class Divergence {
+        final int[] moves;
+        final String reason;
+
+        Divergence(int[] moves, String reason) {
+            this.moves = moves;
+            this.reason = reason;
+        }
+
+        @Override
+        public String toString() {
+            return reason + " after moves " + Arrays.toString(moves);
+        }
+    }
+
+    private final int cellCount;
+    private final Supplier<Engine> reference;
+    private final Supplier<Engine> candidate;
+    private final int maxPlies;
+
+    /**
+     * @param cellCount The number of cells on the board both engines play.
+     * @param reference Makes a new game on the reference engine.
+     * @param candidate Makes a new game on the engine being checked.
+     * @param maxPlies The most moves to try per game.
+     */
+    DifferentialFuzzer(int cellCount, Supplier<Engine> reference, Supplier<Engine> candidate, int maxPlies) {
+        this.cellCount = cellCount;
+        this.reference = reference;
+        this.candidate = candidate;
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Plays games on several threads until they are all played or one diverges.
+     *
+     * @param games The number of games to play.
+     * @param threads The number of threads to play them on.
+     * @param seed The seed, so a run can be repeated.
+     * @return The shrunk divergence, or null if the engines always agreed.
+     */
+    Divergence run(long games, int threads, long seed) throws Exception {
+        AtomicLong next = new AtomicLong();
+        AtomicReference<int[]> failing = new AtomicReference<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    long game;
+                    while (failing.get() == null && (game = next.getAndIncrement()) < games) {
+                        int[] moves = randomGame(new Random(seed * 1_000_003L + game));
+                        if (firstDivergence(moves) != null) {
+                            failing.compareAndSet(null, moves);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return failing.get() == null ? null : shrink(failing.get());
+    }
+
+    /**
+     * Picks moves on the reference engine: mostly legal moves, with some random cells so rejected moves are covered too.
+     */
+    private int[] randomGame(Random random) {
+        Engine engine = reference.get();
+        int[] moves = new int[maxPlies];
+        int plies = 0;
+        int attempts = 0;
+        while (plies < maxPlies && attempts < maxPlies * 4) {
+            Controller.State state = engine.state();
+            if (state == Controller.State.BLUE_WON || state == Controller.State.RED_WON) break;
+            int cell = random.nextInt(cellCount);
+            attempts++;
+            //Always play it, so the moves recorded are the game the engine is in
+            int result = engine.play(cell);
+            if (MoveResult.isValid(result) || random.nextInt(5) == 0) {
+                moves[plies++] = cell;
+            }
+        }
+        return Arrays.copyOf(moves, plies);
+    }
+
+    /**
+     * Replays moves on fresh engines.
+     *
+     * @return What differed first, or null if the engines agreed on every move.
+     */
+    String firstDivergence(int[] moves) {
+        Engine expected = reference.get();
+        Engine actual = candidate.get();
+        for (int ply = 0; ply < moves.length; ply++) {
+            int expectedResult = expected.play(moves[ply]);
+            int actualResult = actual.play(moves[ply]);
+            if (expectedResult != actualResult) {
+                return "move " + ply + " result " + MoveResult.describe(expectedResult) + " (" + expectedResult
+                        + ") but got " + MoveResult.describe(actualResult) + " (" + actualResult + ")";
+            }
+            if (expected.state() != actual.state()) {
+                return "move " + ply + " state " + expected.state() + " but got " + actual.state();
+            }
+            if (expected.checkWin() != actual.checkWin()) {
+                return "move " + ply + " checkWin " + expected.checkWin() + " but got " + actual.checkWin();
+            }
+            for (int colour = 0; colour < 2; colour++) {
+                boolean isBlue = colour == 0;
+                String name = isBlue ? " blue " : " red ";
+                if (expected.stoneCount(isBlue) != actual.stoneCount(isBlue)) {
+                    return "move " + ply + name + "stones " + expected.stoneCount(isBlue) + " but got " + actual.stoneCount(isBlue);
+                }
+                if (expected.groupCount(isBlue) != actual.groupCount(isBlue)) {
+                    return "move " + ply + name + "groups " + expected.groupCount(isBlue) + " but got " + actual.groupCount(isBlue);
+                }
+            }
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (expected.cell(cell) != actual.cell(cell)) {
+                    return "move " + ply + " cell " + cell + " is " + expected.cell(cell) + " but got " + actual.cell(cell);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes a diverging move list shorter while it still diverges: cut everything after the
+     * divergence, then try removing blocks of moves, halving the block size down to pairs and
+     * single moves. Removing one move swaps whose turn it is for the rest of the game, so once the
+     * list is short any two moves are also tried together.
+     */
+    Divergence shrink(int[] moves) {
+        int[] current = truncate(moves);
+        int block = Math.max(1, current.length / 2);
+        while (block >= 1) {
+            int[] shorter = removeAnyBlock(current, block);
+            if (shorter != null) {
+                current = shorter;
+            } else {
+                block = block > 2 ? block / 2 : block - 1;
+            }
+        }
+        int[] shorter;
+        while (current.length <= PAIR_SEARCH_LIMIT && (shorter = removeAnyPair(current)) != null) {
+            current = shorter;
+        }
+        return new Divergence(current, firstDivergence(current));
+    }
+
+    private static final int PAIR_SEARCH_LIMIT = 40;
+
+    /**
+     * @return The moves with the first removable block of this size taken out, or null if none can go.
+     */
+    private int[] removeAnyBlock(int[] moves, int block) {
+        for (int start = 0; start + block <= moves.length; start += block) {
+            int[] shorter = new int[moves.length - block];
+            System.arraycopy(moves, 0, shorter, 0, start);
+            System.arraycopy(moves, start + block, shorter, start, moves.length - start - block);
+            if (firstDivergence(shorter) != null) {
+                return truncate(shorter);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The moves with the first removable pair taken out, or null if no two moves can go.
+     */
+    private int[] removeAnyPair(int[] moves) {
+        for (int i = 0; i < moves.length; i++) {
+            for (int j = i + 1; j < moves.length; j++) {
+                int[] shorter = new int[moves.length - 2];
+                for (int k = 0, n = 0; k < moves.length; k++) {
+                    if (k != i && k != j) shorter[n++] = moves[k];
+                }
+                if (firstDivergence(shorter) != null) {
+                    return truncate(shorter);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The moves up to and including the first one where the engines disagree.
+     */
+    private int[] truncate(int[] moves) {
+        for (int length = 1; length <= moves.length; length++) {
+            if (firstDivergence(Arrays.copyOf(moves, length)) != null) {
+                return Arrays.copyOf(moves, length);
+            }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Runs the differential fuzzer against the full scan reference engine. The default run is short;
+ * CI can scale it up with -Dfuzz.games=1000000 and -Dfuzz.threads=N.
+ */
+class DifferentialFuzzerTest {
+    private static final long GAMES = Long.getLong("fuzz.games", 300);
+    private static final int THREADS = Integer.getInteger("fuzz.threads", Runtime.getRuntime().availableProcessors());
+    private static final long SEED = Long.getLong("fuzz.seed", 25);
+
+    private final ArrayList<HexCube> cells = BoardTopology.hexagon(4);
+
+    private DifferentialFuzzer.Engine reference() {
+        return new DifferentialFuzzer.ScanEngine(cells, Rules.STANDARD);
+    }
+
+    @Test
+    void testArrayGroupsMatchReference() throws Exception {
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(cells.size(), this::reference, () -> {
+            Controller controller = new Controller(cells);
+            controller.getBoard().setUseBitboard(false);
+            return new DifferentialFuzzer.ControllerEngine(controller);
+        }, 400);
+        assertNull(fuzzer.run(GAMES, THREADS, SEED));
+    }
+
+    @Test
+    void testBitboardGroupsMatchReference() throws Exception {
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(cells.size(), this::reference, () -> {
+            Controller controller = new Controller(cells);
+            controller.getBoard().setUseBitboard(true);
+            return new DifferentialFuzzer.ControllerEngine(controller);
+        }, 400);
+        assertNull(fuzzer.run(GAMES, THREADS, SEED));
+    }
+
+    @Test
+    void testCheckMovePredictsPlayMove() throws Exception {
+        //The candidate answers with checkMove before playing, so any difference from playMove shows up
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(cells.size(), this::reference, () ->
+                new DifferentialFuzzer.ControllerEngine(new Controller(cells)) {
+                    @Override
+                    public int play(int cell) {
+                        int predicted = controller.checkMove(cells.get(cell));
+                        controller.playMove(cells.get(cell));
+                        return predicted;
+                    }
+                }, 400);
+        assertNull(fuzzer.run(GAMES, THREADS, SEED));
+    }
+
+    @Test
+    void testDivergenceIsShrunk() throws Exception {
+        //A broken engine that never lets red capture
+        DifferentialFuzzer fuzzer = new DifferentialFuzzer(cells.size(), this::reference, () ->
+                new DifferentialFuzzer.ControllerEngine(new Controller(cells)) {
+                    @Override
+                    public int play(int cell) {
+                        boolean red = controller.getState() == Controller.State.RED_TURN;
+                        if (red && MoveResult.isCapture(controller.checkMove(cells.get(cell)))) {
+                            return MoveResult.GROUP_TOO_SMALL;
+                        }
+                        return super.play(cell);
+                    }
+                }, 400);
+        DifferentialFuzzer.Divergence divergence = fuzzer.run(GAMES, THREADS, SEED);
+        assertNotNull(divergence);
+        assertNotNull(fuzzer.firstDivergence(divergence.moves));
+
+        //The shrunk game is minimal: it ends on the divergence and dropping any one move loses it
+        int[] moves = divergence.moves;
+        assertNull(fuzzer.firstDivergence(Arrays.copyOf(moves, moves.length - 1)));
+        for (int skip = 0; skip < moves.length; skip++) {
+            int[] shorter = new int[moves.length - 1];
+            for (int k = 0, n = 0; k < moves.length; k++) {
+                if (k != skip) shorter[n++] = moves[k];
+            }
+            assertNull(fuzzer.firstDivergence(shorter), divergence.toString());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class EloRatingsTest {
+
+    @Test
+    void testThreeToOneIsAboutTwoHundredElo() {
+        EloRatings ratings = new EloRatings(2);
+        for (int i = 0; i < 3000; i++) {
+            ratings.add(0, 1, 1);
+        }
+        for (int i = 0; i < 1000; i++) {
+            ratings.add(0, 1, 0);
+        }
+        double[] elo = ratings.ratings();
+        //A 75% score is 400 log10(3), about 191 Elo
+        assertEquals(400 * Math.log10(3), elo[0] - elo[1], 1.0);
+        assertEquals(0, elo[0] + elo[1], 1e-6);
+
+        double[] margin = ratings.confidence(elo);
+        assertTrue(margin[0] > 5 && margin[0] < 20, "margin " + margin[0]);
+        assertEquals(margin[0], margin[1], 1e-6);
+    }
+
+    @Test
+    void testConfidenceNarrowsWithMoreGames() {
+        EloRatings few = new EloRatings(3);
+        EloRatings many = new EloRatings(3);
+        for (int i = 0; i < 100; i++) {
+            for (EloRatings r : i < 10 ? new EloRatings[]{few, many} : new EloRatings[]{many}) {
+                r.add(0, 1, i % 3 == 0 ? 0 : 1);
+                r.add(1, 2, i % 2);
+                r.add(0, 2, 0.5);
+            }
+        }
+        double[] fewMargin = few.confidence(few.ratings());
+        double[] manyMargin = many.confidence(many.ratings());
+        for (int player = 0; player < 3; player++) {
+            assertTrue(manyMargin[player] < fewMargin[player]);
+        }
+    }
+
+    @Test
+    void testUnbeatenPlayerHasFiniteRating() {
+        EloRatings ratings = new EloRatings(3);
+        for (int i = 0; i < 20; i++) {
+            ratings.add(0, 1, 1);
+            ratings.add(1, 2, 1);
+        }
+        double[] elo = ratings.ratings();
+        assertTrue(Double.isFinite(elo[0]));
+        assertTrue(elo[0] > elo[1] && elo[1] > elo[2]);
+        assertEquals(40, ratings.getGames(1));
+        assertEquals(20, ratings.getScore(1), 1e-9);
+        assertFalse(ratings.havePlayed(0, 2));
+    }
+}
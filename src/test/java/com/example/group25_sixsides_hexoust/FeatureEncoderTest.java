@@ -0,0 +1,73 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+class FeatureEncoderTest {
+
+    //A line of four hexes: red on 0 and 1 after a capture would be too much set up, so red on 0, blue on 2 and 3
+    private Controller linePosition(ArrayList<HexCube> line) {
+        for (int q = 0; q < 4; q++) {
+            line.add(new HexCube(q, 0, -q));
+        }
+        Controller controller = new Controller(line);
+        controller.playMove(line.get(0));  //Red
+        controller.playMove(line.get(2));  //Blue
+        controller.playMove(line.get(3));  //Red, next to blue but not to red
+        return controller;
+    }
+
+    private float plane(FloatBuffer out, int position, int plane, int cell) {
+        return out.get(position * FeatureEncoder.PLANE_COUNT * 4 + plane * 4 + cell);
+    }
+
+    @Test
+    void testPlanesAreFromThePlayerToMove() {
+        ArrayList<HexCube> line = new ArrayList<>();
+        Controller controller = linePosition(line);
+        FeatureEncoder encoder = new FeatureEncoder(controller.getBoard().getTopology());
+        assertEquals(FeatureEncoder.PLANE_COUNT * 4, encoder.getInputSize());
+
+        FloatBuffer out = encoder.allocate(2);
+        assertTrue(out.isDirect());
+        encoder.encode(controller.getBoard(), true, out, 0);
+        encoder.encode(controller.getBoard(), false, out, 1);
+
+        //Blue to move: blue owns cell 2, red owns 0 and 3
+        assertArrayEquals(new float[]{0, 0, 1, 0}, planeValues(out, 0, FeatureEncoder.OWN_STONES));
+        assertArrayEquals(new float[]{1, 0, 0, 1}, planeValues(out, 0, FeatureEncoder.OPPONENT_STONES));
+        assertArrayEquals(new float[]{1, 1, 1, 1}, planeValues(out, 0, FeatureEncoder.BLUE_TO_MOVE));
+        //Red to move sees the same stones the other way round
+        assertArrayEquals(new float[]{1, 0, 0, 1}, planeValues(out, 1, FeatureEncoder.OWN_STONES));
+        assertArrayEquals(new float[]{0, 0, 0, 0}, planeValues(out, 1, FeatureEncoder.BLUE_TO_MOVE));
+        assertEquals(0, out.position());
+    }
+
+    @Test
+    void testGroupSizePlanes() {
+        ArrayList<HexCube> line = new ArrayList<>();
+        Controller controller = linePosition(line);
+        FeatureEncoder encoder = new FeatureEncoder(controller.getBoard().getTopology());
+        FloatBuffer out = encoder.allocate(2);
+        encoder.encode(controller.getBoard(), true, out, 0);
+        assertArrayEquals(new float[]{0, 0, 0.25f, 0}, planeValues(out, 0, FeatureEncoder.OWN_GROUP_SIZE));
+        assertArrayEquals(new float[]{0.25f, 0, 0, 0.25f}, planeValues(out, 0, FeatureEncoder.OPPONENT_GROUP_SIZE));
+
+        //Blue joins 1 to its stone at 2, which captures both of red's single stones
+        assertTrue(MoveResult.isCapture(controller.playMove(line.get(1))));
+        encoder.encode(controller.getBoard(), true, out, 1);
+        assertArrayEquals(new float[]{0, 0.5f, 0.5f, 0}, planeValues(out, 1, FeatureEncoder.OWN_GROUP_SIZE));
+        assertArrayEquals(new float[]{0, 0, 0, 0}, planeValues(out, 1, FeatureEncoder.OPPONENT_GROUP_SIZE));
+    }
+
+    private float[] planeValues(FloatBuffer out, int position, int plane) {
+        float[] values = new float[4];
+        for (int cell = 0; cell < 4; cell++) {
+            values[cell] = plane(out, position, plane, cell);
+        }
+        return values;
+    }
+}
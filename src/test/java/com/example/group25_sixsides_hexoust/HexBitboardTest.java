@@ -0,0 +1,78 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+class HexBitboardTest {
+
+    //Fills a board at random and checks the bitboard finds the same group as the hex by hex search from every stone
+    private void assertSameGroups(ArrayList<HexCube> cells, double density, long seed) {
+        Board board = new Board(cells);
+        Random random = new Random(seed);
+        for (HexCube cell : cells) {
+            if (random.nextDouble() < density) {
+                board.validateForPlayer(cell, new ArrayList<>(), random.nextBoolean());
+            }
+        }
+        for (HexCube cell : cells) {
+            for (boolean isBlue : new boolean[]{true, false}) {
+                board.setUseBitboard(false);
+                ArrayList<Integer> expected = board.collectGroup(cell, isBlue);
+                board.setUseBitboard(true);
+                ArrayList<Integer> actual = board.collectGroup(cell, isBlue);
+                Collections.sort(expected);
+                Collections.sort(actual);
+                assertEquals(expected, actual, "group from " + cell);
+            }
+        }
+    }
+
+    @Test
+    void testMatchesSearchOnHexagonBoards() {
+        for (int baseN = 0; baseN <= 12; baseN++) {
+            for (double density : new double[]{0.3, 0.6, 0.9}) {
+                assertSameGroups(BoardTopology.hexagon(baseN), density, baseN * 31L + (long) (density * 10));
+            }
+        }
+    }
+
+    @Test
+    void testMatchesSearchOnOddShapes() {
+        //A wide thin board puts many rows inside one long and several board edges next to each other
+        ArrayList<HexCube> strip = new ArrayList<>();
+        for (int r = -3; r <= 3; r++) {
+            for (int q = -40; q <= 40; q++) {
+                strip.add(new HexCube(q, r, -q - r));
+            }
+        }
+        assertSameGroups(strip, 0.7, 7);
+
+        //A single row that crosses word boundaries
+        ArrayList<HexCube> line = new ArrayList<>();
+        for (int q = 0; q < 200; q++) {
+            line.add(new HexCube(q, 0, -q));
+        }
+        assertSameGroups(line, 0.8, 11);
+    }
+
+    @Test
+    void testLargeBoardGameMatchesSearch() {
+        ArrayList<HexCube> cells = BoardTopology.hexagon(40);
+        Controller bits = new Controller(cells);
+        Controller search = new Controller(cells);
+        bits.getBoard().setUseBitboard(true);
+        search.getBoard().setUseBitboard(false);
+
+        Random random = new Random(40);
+        for (int move = 0; move < 3000; move++) {
+            HexCube cell = cells.get(random.nextInt(cells.size()));
+            assertEquals(search.playMove(cell), bits.playMove(cell));
+        }
+        assertEquals(search.getState(), bits.getState());
+        assertEquals(search.getBoard().getGroupCount(true), bits.getBoard().getGroupCount(true));
+    }
+}
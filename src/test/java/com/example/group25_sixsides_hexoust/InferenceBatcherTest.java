@@ -0,0 +1,130 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class InferenceBatcherTest {
+
+    private final BoardTopology topology = BoardTopology.standard(3);
+    private final FeatureEncoder encoder = new FeatureEncoder(topology);
+    private final ReferenceNetwork network = new ReferenceNetwork(encoder.getInputSize(), 16, 5);
+
+    //Plays a few random moves so the positions differ
+    private Controller randomPosition(long seed) {
+        Controller controller = new Controller(topology, Rules.STANDARD);
+        Bot bot = new RandomBot(new Random(seed));
+        for (int i = 0; i < 6 + seed % 10 && !controller.isGameOver(); i++) {
+            controller.handleMove(bot.chooseMove(controller));
+        }
+        return controller;
+    }
+
+    //Uses its own encoder, since the games call this from several threads
+    private float scoreAlone(Controller controller) {
+        FeatureEncoder encoder = new FeatureEncoder(topology);
+        FloatBuffer input = encoder.allocate(1);
+        FloatBuffer output = FloatBuffer.allocate(1);
+        encoder.encode(controller.getBoard(), controller.isBlueTurn(), input, 0);
+        network.evaluate(input, 1, output);
+        return output.get(0);
+    }
+
+    @Test
+    void testBatchedValuesMatchSingleValues() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try (InferenceBatcher batcher = new InferenceBatcher(topology, network, 8, 50_000_000L)) {
+            List<Future<?>> games = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                games.add(pool.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        Controller position = randomPosition(thread * 100 + i);
+                        float value = batcher.evaluate(position.getBoard(), position.isBlueTurn());
+                        assertEquals(scoreAlone(position), value, 1e-6);
+                        assertTrue(value > -1 && value < 1);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> game : games) {
+                game.get();
+            }
+            assertEquals(160, batcher.getPositionCount());
+            assertTrue(batcher.getBatchCount() < 160, "positions were batched together");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testLonePositionIsScoredAfterTheWait() throws Exception {
+        try (InferenceBatcher batcher = new InferenceBatcher(topology, network, 64, 1_000_000L)) {
+            Controller position = randomPosition(3);
+            assertEquals(scoreAlone(position), batcher.evaluate(position.getBoard(), position.isBlueTurn()), 1e-6);
+            assertEquals(1, batcher.getBatchCount());
+        }
+    }
+
+    @Test
+    void testModelForAnotherBoardIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new InferenceBatcher(BoardTopology.standard(4), network, 8, 1_000_000L));
+    }
+
+    @Test
+    void testNetworkBotsPlayConcurrentGames() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (InferenceBatcher batcher = new InferenceBatcher(topology, network, 4, 5_000_000L)) {
+            List<Future<SelfPlay.Game>> games = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long seed = t;
+                games.add(pool.submit(() -> SelfPlay.play(topology, Rules.STANDARD,
+                        new NetworkBot(batcher), new RandomBot(new Random(seed)), 500)));
+            }
+            for (Future<SelfPlay.Game> game : games) {
+                SelfPlay.Game played = game.get();
+                //Every recorded move was legal when replayed
+                Controller replay = SelfPlay.replay(topology.getCells(), played, played.getMoves().length);
+                assertEquals(played.getResult(), replay.getState());
+            }
+            assertTrue(batcher.getPositionCount() > batcher.getBatchCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testInterruptedNetworkBotCancelsInsteadOfPassing() throws Exception {
+        try (InferenceBatcher batcher = new InferenceBatcher(topology, network, 2, 50_000_000L)) {
+            Controller position = randomPosition(5);
+            //With the interrupt already set, the bot's first wait for the batcher is cut short
+            Thread.currentThread().interrupt();
+            assertThrows(CancellationException.class, () -> new NetworkBot(batcher).chooseMove(position));
+            assertTrue(Thread.interrupted());
+
+            //The positions already submitted were awaited, so the batcher goes on working
+            assertEquals(scoreAlone(position), batcher.evaluate(position.getBoard(), position.isBlueTurn()), 1e-6);
+            assertNotNull(new NetworkBot(batcher).chooseMove(position));
+        }
+    }
+
+    @Test
+    void testCloseKeepsTheCallersInterrupt() throws Exception {
+        InferenceBatcher batcher = new InferenceBatcher(topology, network, 8, 1_000_000L);
+        Controller position = randomPosition(4);
+        batcher.evaluate(position.getBoard(), position.isBlueTurn());
+        Thread.currentThread().interrupt();
+        batcher.close();
+        assertTrue(Thread.interrupted());
+        assertThrows(IllegalStateException.class, () -> batcher.submit(position.getBoard(), position.isBlueTurn()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class MoveAnalyzerTest {
+
+    //A line of four hexes with red on the first and blue on the third, red to move
+    private Controller linePosition() {
+        ArrayList<HexCube> line = new ArrayList<>();
+        for (int q = 0; q < 4; q++) {
+            line.add(new HexCube(q, 0, -q));
+        }
+        Controller controller = new Controller(line);
+        controller.playMove(line.get(0));
+        controller.playMove(line.get(2));
+        return controller;
+    }
+
+    @Test
+    void testWinningMoveScoresOne() throws InterruptedException {
+        Controller position = linePosition();
+        MoveAnalyzer analyzer = new MoveAnalyzer(position);
+        assertEquals(2, analyzer.getMoveCount());
+
+        CountDownLatch enough = new CountDownLatch(1);
+        AtomicReference<MoveAnalyzer.Result> latest = new AtomicReference<>();
+        analyzer.start(2, 1, 10, result -> {
+            latest.set(result);
+            if (result.getPlayouts(1) >= 20 && result.getPlayouts(3) >= 20) enough.countDown();
+        });
+        assertTrue(enough.await(10, TimeUnit.SECONDS));
+        analyzer.cancel();
+
+        MoveAnalyzer.Result result = latest.get();
+        //Red at 1 joins red at 0 and captures blue's only stone
+        assertEquals(1.0, result.getWinRate(1));
+        assertEquals(1, result.getBestCell());
+        assertTrue(Double.isNaN(result.getWinRate(0)));
+        assertTrue(Double.isNaN(result.getWinRate(2)));
+        assertTrue(result.getWinRate(3) >= 0 && result.getWinRate(3) <= 1);
+
+        //The analysis played on its own copy
+        assertEquals(Controller.State.RED_TURN, position.getState());
+        assertEquals(1, position.getBoard().getStoneCount(true));
+        assertEquals(1, position.getBoard().getStoneCount(false));
+    }
+
+    @Test
+    void testCancelStopsUpdates() throws InterruptedException {
+        MoveAnalyzer analyzer = new MoveAnalyzer(new Controller(BoardTopology.hexagon(3)));
+        AtomicInteger updates = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        analyzer.start(2, 2, 5, result -> {
+            updates.incrementAndGet();
+            started.countDown();
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        analyzer.cancel();
+        assertTrue(analyzer.isCancelled());
+        Thread.sleep(50);  //Let an update that was already being delivered finish
+
+        int afterCancel = updates.get();
+        long playouts = analyzer.snapshot().getTotalPlayouts();
+        Thread.sleep(100);
+        assertEquals(afterCancel, updates.get());
+        assertEquals(playouts, analyzer.snapshot().getTotalPlayouts());
+    }
+
+    @Test
+    void testFinishedGameHasNoMoves() {
+        ArrayList<HexCube> line = new ArrayList<>();
+        for (int q = 0; q < 4; q++) {
+            line.add(new HexCube(q, 0, -q));
+        }
+        Controller controller = new Controller(line);
+        controller.playMove(line.get(0));
+        controller.playMove(line.get(2));
+        controller.playMove(line.get(1));
+        assertTrue(controller.isGameOver());
+        assertEquals(0, new MoveAnalyzer(controller).getMoveCount());
+    }
+}
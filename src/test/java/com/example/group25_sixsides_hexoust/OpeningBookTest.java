@@ -0,0 +1,110 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class OpeningBookTest {
+    private ArrayList<HexCube> cells;
+    private BoardTopology topology;
+    private OpeningBook book;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cells = BoardTopology.hexagon(2);
+        topology = BoardTopology.of(new Board(cells).getCubeToIndexMap());
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(cells, 3, 1);
+        Bot bot = new RandomBot(new Random(25));
+        for (int i = 0; i < 300; i++) {
+            builder.addGame(SelfPlay.play(cells, bot, bot, 200));
+        }
+        Path file = Files.createTempFile("hexoust", ".book");
+        file.toFile().deleteOnExit();
+        assertTrue(builder.write(file) > 0);
+        book = OpeningBook.open(file, topology, 3);
+    }
+
+    @Test
+    void testEmptyBoardHasBookMove() {
+        Controller controller = new Controller(cells);
+        int cell = book.lookup(controller);
+        assertTrue(cell >= 0);
+        assertTrue(controller.handleMove(cells.get(cell)));
+    }
+
+    @Test
+    void testRotatedPositionsGetEquivalentMoves() {
+        HexCube first = cells.get(0);
+        HexCube rotated = new HexCube(-first.r, -first.s, -first.q);
+
+        Controller original = new Controller(cells);
+        Controller turned = new Controller(cells);
+        original.handleMove(first);
+        turned.handleMove(rotated);
+
+        int originalMove = book.lookup(original);
+        int turnedMove = book.lookup(turned);
+        assertTrue(originalMove >= 0);
+        assertTrue(turnedMove >= 0);
+
+        //The answers may differ, but they must lead to the same position up to symmetry
+        original.handleMove(cells.get(originalMove));
+        turned.handleMove(cells.get(turnedMove));
+        PositionKey key = new PositionKey(topology);
+        assertEquals(key.key(original.getBoard().getHex().getBlueHexagons(), original.getBoard().getHex().getRedHexagons(), true),
+                key.key(turned.getBoard().getHex().getBlueHexagons(), turned.getBoard().getHex().getRedHexagons(), true));
+    }
+
+    @Test
+    void testOutOfBookPositionFallsBack() {
+        Controller controller = new Controller(cells);
+        controller.handleMove(cells.get(0));
+        controller.handleMove(cells.get(cells.size() - 1));
+        controller.handleMove(cells.get(9));
+        assertEquals(-1, book.lookup(controller)); //Three stones is past the book depth
+        assertNotNull(book.bot(new RandomBot(new Random(1))).chooseMove(controller));
+    }
+
+    @Test
+    void testThreadsShareOneBook() throws Exception {
+        //Positions one stone in, each under a different symmetry, so every lookup maps its move back
+        List<Controller> positions = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            Controller controller = new Controller(cells);
+            controller.handleMove(cells.get(i));
+            positions.add(controller);
+            expected.add(book.lookup(controller));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                threads.add(pool.submit(() -> {
+                    for (int n = 0; n < 200; n++) {
+                        int i = (n + offset * 5) % positions.size();
+                        assertEquals(expected.get(i), Integer.valueOf(book.lookup(positions.get(i))));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> thread : threads) {
+                thread.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
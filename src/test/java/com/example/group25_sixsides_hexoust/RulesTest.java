@@ -0,0 +1,64 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Random;
+
+class RulesTest {
+    private ArrayList<HexCube> test;
+
+    @BeforeEach
+    void setup() { //Same small board as BoardTest
+        test = new ArrayList<>();
+        test.add(new HexCube(0, 0, 0));
+        test.add(new HexCube(1, -1, 0));
+        test.add(new HexCube(1, 0, -1));
+        test.add(new HexCube(0, 1, -1));
+        test.add(new HexCube(-1, 1, 0));
+        test.add(new HexCube(-1, 0, 1));
+        test.add(new HexCube(0, -1, 1));
+    }
+
+    @Test
+    void testCaptureByEqualGroup() {
+        Board standard = new Board(test);
+        Board equal = new Board(test, new Rules.CaptureMargin(0));
+        for (Board board : new Board[]{standard, equal}) {
+            board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        }
+        //Blue at 2 is a single stone next to a single red stone
+        assertEquals(MoveResult.GROUP_TOO_SMALL, standard.tryCapturingMove(test.get(2), true));
+        assertTrue(MoveResult.isCapture(equal.tryCapturingMove(test.get(2), true)));
+        assertEquals(0, equal.getStoneCount(false));
+    }
+
+    @Test
+    void testLargerMarginBlocksCapture() {
+        Board board = new Board(test, new Rules.CaptureMargin(2));
+        board.validateForRed(test.get(1), board.getNeighbors(test.get(1)));
+        board.validateForBlue(test.get(0), board.getNeighbors(test.get(0)));
+        //Blue would have two stones against one, which is not enough with a margin of two
+        assertEquals(MoveResult.GROUP_TOO_SMALL, board.tryCapturingMove(test.get(3), true));
+    }
+
+    @Test
+    void testFreePlacementJoinsGroups() {
+        Controller controller = new Controller(test, new Rules.FreePlacement());
+        controller.handleMove(test.get(1));
+        controller.handleMove(test.get(4));
+        assertTrue(controller.handleMove(test.get(2))); //Red next to red without capturing
+        assertEquals(1, controller.getBoard().getGroupCount(false));
+        assertEquals(2, controller.getBoard().getStoneCount(false));
+    }
+
+    @Test
+    void testRhombusBoard() {
+        Rules rhombus = Rules.named("rhombus");
+        ArrayList<HexCube> cells = rhombus.createBoard(5);
+        assertEquals(25, cells.size());
+        SelfPlay.Game game = SelfPlay.play(cells, rhombus, new RandomBot(new Random(5)), new RandomBot(new Random(6)), 1000);
+        assertTrue(game.getMoves().length > 0);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class SpectatorBroadcasterTest {
+
+    private static final BoardTopology TOPOLOGY = BoardTopology.standard(4);
+
+    //Plays random moves until the game ends or the moves run out
+    static void playRandomMoves(Controller game, Random random, int moves) {
+        Bot bot = new RandomBot(random);
+        HexCube move;
+        for (int i = 0; i < moves && !game.isGameOver() && (move = bot.chooseMove(game)) != null; i++) {
+            game.handleMove(move);
+        }
+    }
+
+    //Plays moves on cells with no stones around them, so nothing is captured
+    private void playQuietMoves(Controller game, int moves) {
+        for (int i = 0; i < moves; i++) {
+            HexCube quiet = null;
+            for (HexCube cell : game.getBoard().getCubeCoordinates()) {
+                if (game.getBoard().isHexagonOccupied(cell)) continue;
+                boolean alone = true;
+                for (HexCube neighbor : game.getBoard().getNeighbors(cell)) {
+                    alone &= !game.getBoard().isHexagonOccupied(neighbor);
+                }
+                if (alone) {
+                    quiet = cell;
+                    break;
+                }
+            }
+            assertTrue(game.handleMove(quiet));
+        }
+    }
+
+    static void assertMirrors(Controller game, SpectatorMirror mirror) {
+        SpectatorFrame expected = SpectatorFrame.keyframe(0, game);
+        for (int cell = 0; cell < expected.getCellCount(); cell++) {
+            assertEquals(expected.getCellValue(cell), mirror.getCell(cell), "cell " + cell);
+        }
+        assertEquals(game.getState(), mirror.getState());
+    }
+
+    private List<SpectatorFrame> takeAll(SpectatorBroadcaster.Subscription subscription) throws InterruptedException {
+        List<SpectatorFrame> frames = new ArrayList<>();
+        SpectatorFrame frame;
+        while ((frame = subscription.take()) != null) {
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    @Test
+    void testSpectatorFollowsWholeGame() throws InterruptedException {
+        Controller game = new Controller(TOPOLOGY, Rules.STANDARD);
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 10, 1000);
+        SpectatorBroadcaster.Subscription subscription = broadcaster.subscribe();
+        playRandomMoves(game, new Random(3), 200);
+        broadcaster.close();
+
+        List<SpectatorFrame> frames = takeAll(subscription);
+        assertTrue(frames.get(0).isKeyframe());
+        SpectatorMirror mirror = new SpectatorMirror(TOPOLOGY.getCellCount());
+        boolean sawCapture = false;
+        for (SpectatorFrame frame : frames) {
+            assertTrue(mirror.apply(frame), "frame " + frame);
+            sawCapture |= frame.getCapturedCount() > 0;
+        }
+        assertTrue(sawCapture);
+        assertMirrors(game, mirror);
+        assertFalse(subscription.isDropped());
+        assertEquals(0, subscription.getCollapseCount());
+    }
+
+    @Test
+    void testLateJoinerStartsFromKeyframe() throws InterruptedException {
+        Controller game = new Controller(TOPOLOGY, Rules.STANDARD);
+        Random random = new Random(5);
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 4, 1000);
+        playRandomMoves(game, random, 9);
+        SpectatorBroadcaster.Subscription late = broadcaster.subscribe();
+        playRandomMoves(game, random, 9);
+        broadcaster.close();
+
+        List<SpectatorFrame> frames = takeAll(late);
+        assertTrue(frames.get(0).isKeyframe());
+        SpectatorMirror mirror = new SpectatorMirror(TOPOLOGY.getCellCount());
+        for (SpectatorFrame frame : frames) {
+            assertTrue(mirror.apply(frame), "frame " + frame);
+        }
+        assertMirrors(game, mirror);
+    }
+
+    @Test
+    void testSlowSubscriberIsCollapsedThenDropped() throws InterruptedException {
+        Controller game = new Controller(TOPOLOGY, Rules.STANDARD);
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 1000, 2);
+        SpectatorBroadcaster.Subscription slow = broadcaster.subscribe();
+        //The queue holds the first keyframe and delta 1, so delta 2 collapses it to a keyframe
+        //and delta 4 finds that keyframe still unread
+        playQuietMoves(game, 4);
+        broadcaster.close();
+
+        assertEquals(1, slow.getCollapseCount());
+        assertTrue(slow.isDropped());
+        assertNull(slow.take());
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void testCollapsedSubscriberCatchesUpFromKeyframe() throws InterruptedException {
+        Controller game = new Controller(TOPOLOGY, Rules.STANDARD);
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 1000, 3);
+        SpectatorBroadcaster.Subscription subscription = broadcaster.subscribe();
+        playQuietMoves(game, 3);
+        broadcaster.close();
+
+        //Delta 3 found the queue full, so only a keyframe after it is left
+        SpectatorFrame frame = subscription.take();
+        assertTrue(frame.isKeyframe());
+        assertEquals(3, frame.getSeq());
+        SpectatorMirror mirror = new SpectatorMirror(TOPOLOGY.getCellCount());
+        assertTrue(mirror.apply(frame));
+        assertMirrors(game, mirror);
+        assertEquals(1, subscription.getCollapseCount());
+        assertFalse(subscription.isDropped());
+    }
+
+    @Test
+    void testKeyframeCellsMatchPackedPositions() {
+        Controller game = new Controller(TOPOLOGY, Rules.STANDARD);
+        playRandomMoves(game, new Random(19), 12);
+        byte[] packed = new byte[TOPOLOGY.getCellCount()];
+        new BatchEvaluator(TOPOLOGY).encode(game.getBoard(), packed, 0);
+        SpectatorFrame keyframe = SpectatorFrame.keyframe(0, game);
+        for (int cell = 0; cell < packed.length; cell++) {
+            assertEquals(packed[cell], keyframe.getCellValue(cell), "cell " + cell);
+        }
+    }
+
+    @Test
+    void testMirrorRefusesGapUntilKeyframe() {
+        SpectatorMirror mirror = new SpectatorMirror(4);
+        assertFalse(mirror.apply(SpectatorFrame.delta(1, Controller.State.BLUE_TURN, 0, false, new int[0])));
+        assertTrue(mirror.apply(SpectatorFrame.keyframe(1, Controller.State.BLUE_TURN, new byte[]{1, 0, 0, 0})));
+        assertTrue(mirror.apply(SpectatorFrame.delta(2, Controller.State.RED_TURN, 2, true, new int[0])));
+        assertFalse(mirror.apply(SpectatorFrame.delta(4, Controller.State.BLUE_TURN, 3, false, new int[0])));
+        assertFalse(mirror.isSynced());
+        assertEquals(2, mirror.getSeq());
+        assertEquals(BatchEvaluator.BLUE, mirror.getCell(2));
+    }
+
+    @Test
+    void testGameWithAListenerIsNotTakenOver() {
+        Controller game = new Controller(TOPOLOGY, Rules.STANDARD);
+        MoveListener other = (g, cell, isBlue, captured, capturedCount) -> { };
+        game.setMoveListener(other);
+        assertThrows(IllegalStateException.class, () -> new SpectatorBroadcaster(game, 10, 10));
+        assertSame(other, game.getMoveListener());
+
+        //Closing only removes the broadcaster's own listener
+        game.setMoveListener(null);
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 10, 10);
+        assertSame(broadcaster, game.getMoveListener());
+        game.setMoveListener(other);
+        broadcaster.close();
+        assertSame(other, game.getMoveListener());
+    }
+
+    @Test
+    void testUnsubscribedSpectatorGetsNoMoreFrames() throws InterruptedException {
+        Controller game = new Controller(TOPOLOGY, Rules.STANDARD);
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 1000, 100);
+        SpectatorBroadcaster.Subscription subscription = broadcaster.subscribe();
+        subscription.close();
+        playQuietMoves(game, 5);
+        broadcaster.close();
+
+        assertTrue(subscription.take().isKeyframe());
+        assertNull(subscription.take());
+        assertFalse(subscription.isDropped());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Random;
+
+class SpectatorServerTest {
+
+    @Test
+    void testSocketSpectatorFollowsGame() throws IOException, InterruptedException {
+        BoardTopology topology = BoardTopology.standard(5);
+        Controller game = new Controller(topology, Rules.STANDARD);
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, 8, 4096);
+        try (SpectatorServer server = new SpectatorServer(broadcaster, topology.getCellCount(), 0);
+             Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.setSoTimeout(10_000);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            SpectatorMirror mirror = new SpectatorMirror(SpectatorServer.readHeader(in));
+            assertEquals(topology.getCellCount(), mirror.getCellCount());
+
+            SpectatorBroadcasterTest.playRandomMoves(game, new Random(17), 300);
+            broadcaster.close();
+
+            int frames = 0;
+            try {
+                while (true) {
+                    SpectatorFrame frame = SpectatorFrame.read(in, mirror.getCellCount());
+                    assertTrue(frames > 0 || frame.isKeyframe());
+                    assertTrue(mirror.apply(frame), "frame " + frame);
+                    frames++;
+                }
+            } catch (EOFException e) {
+                //The server hung up after the last frame
+            }
+            assertTrue(frames > 1);
+            SpectatorBroadcasterTest.assertMirrors(game, mirror);
+        }
+    }
+
+    @Test
+    void testKeyframeSurvivesTheWire() throws IOException {
+        byte[] cells = new byte[9];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) (i % 3);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        SpectatorFrame.keyframe(42, Controller.State.BLUE_WON, cells).write(out);
+        SpectatorFrame.delta(43, Controller.State.RED_TURN, 5, true, new int[]{1, 7}).write(out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        SpectatorFrame keyframe = SpectatorFrame.read(in, cells.length);
+        assertTrue(keyframe.isKeyframe());
+        assertEquals(42, keyframe.getSeq());
+        assertEquals(Controller.State.BLUE_WON, keyframe.getState());
+        for (int i = 0; i < cells.length; i++) {
+            assertEquals(cells[i], keyframe.getCellValue(i));
+        }
+        SpectatorFrame delta = SpectatorFrame.read(in, cells.length);
+        assertFalse(delta.isKeyframe());
+        assertEquals(5, delta.getCell());
+        assertTrue(delta.isBlue());
+        assertEquals(2, delta.getCapturedCount());
+        assertEquals(7, delta.getCaptured(1));
+    }
+
+    //Writes a frame and reads it back as if it came for a board of cellCount cells
+    private void assertRefused(SpectatorFrame frame, int cellCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        frame.write(new DataOutputStream(bytes));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThrows(IOException.class, () -> SpectatorFrame.read(in, cellCount), frame.toString());
+    }
+
+    @Test
+    void testFramesThatDoNotFitTheBoardAreRefused() throws IOException {
+        assertRefused(SpectatorFrame.keyframe(1, Controller.State.RED_TURN, new byte[10]), 9);
+        assertRefused(SpectatorFrame.keyframe(1, Controller.State.RED_TURN, new byte[]{0, 1, 3}), 3);
+        assertRefused(SpectatorFrame.delta(2, Controller.State.BLUE_TURN, 9, false, new int[0]), 9);
+        assertRefused(SpectatorFrame.delta(2, Controller.State.BLUE_TURN, -1, false, new int[0]), 9);
+        assertRefused(SpectatorFrame.delta(2, Controller.State.BLUE_TURN, 4, false, new int[]{1, 12}), 9);
+        assertRefused(SpectatorFrame.delta(2, Controller.State.BLUE_TURN, 4, false, new int[9]), 9);
+    }
+}
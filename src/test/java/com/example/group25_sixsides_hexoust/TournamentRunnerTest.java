@@ -0,0 +1,60 @@
+package com.example.group25_sixsides_hexoust;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+class TournamentRunnerTest {
+
+    private TournamentRunner runner(int bots) throws Exception {
+        String[] names = new String[bots];
+        Arrays.fill(names, "random");
+        return new TournamentRunner(Arrays.asList(names), BoardTopology.standard(2), Rules.STANDARD, 3, 7, 1000);
+    }
+
+    @Test
+    void testRoundRobinWritesEveryGame() throws Exception {
+        StringWriter csv = new StringWriter();
+        EloRatings ratings = runner(3).roundRobin(4, csv);
+
+        String[] lines = csv.toString().split("\n");
+        assertEquals("game,round,red,blue,winner,plies,millis", lines[0]);
+        assertEquals(1 + 3 * 4, lines.length);
+        for (int player = 0; player < 3; player++) {
+            assertEquals(8, ratings.getGames(player));
+        }
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",");
+            assertEquals(7, fields.length);
+            assertTrue(List.of("red", "blue", "draw").contains(fields[4]), lines[i]);
+        }
+    }
+
+    @Test
+    void testSwissAvoidsRematches() throws Exception {
+        TournamentRunner runner = runner(4);
+        EloRatings ratings = runner.swiss(3, 2, new StringWriter());
+        //Three rounds of four bots is enough for everyone to meet everyone once
+        for (int a = 0; a < 4; a++) {
+            assertEquals(6, ratings.getGames(a));
+            for (int b = 0; b < 4; b++) {
+                if (a != b) assertTrue(ratings.havePlayed(a, b), a + " and " + b);
+            }
+        }
+    }
+
+    @Test
+    void testSwissGivesOddBotOut() throws Exception {
+        TournamentRunner runner = runner(5);
+        assertEquals(2, runner.swissPairings().size());
+    }
+
+    @Test
+    void testUnknownBotIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TournamentRunner(List.of("random", "no.such.Bot"), BoardTopology.standard(2), Rules.STANDARD, 1, 1, 10));
+    }
+}